@@ -0,0 +1,177 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Dependency graph of a set of adapters, built from their {@link AdapterDependency} annotations.
+ *
+ * A declared dependency matches any selected adapter that is a subtype of the declared class.
+ * Dependencies on adapters that are not selected are followed transitively, so an adapter still
+ * runs after the selected adapters its (unselected) dependencies depend on. Cycles in the declared
+ * dependencies are rejected when the graph is built.
+ */
+public class AdapterGraph {
+
+  private final List<AbstractAdapter<?>> order;
+  private final Map<AbstractAdapter<?>, List<AbstractAdapter<?>>> dependencies;
+
+  private AdapterGraph(List<AbstractAdapter<?>> order,
+      Map<AbstractAdapter<?>, List<AbstractAdapter<?>>> dependencies) {
+    this.order = order;
+    this.dependencies = dependencies;
+  }
+
+  /**
+   * Build the dependency graph for the given adapters.
+   *
+   * @param adapters the selected adapters
+   * @return the dependency graph
+   * @throws IllegalStateException if the declared dependencies contain a cycle
+   */
+  public static AdapterGraph of(Collection<? extends AbstractAdapter<?>> adapters) {
+    List<AbstractAdapter<?>> nodes = new ArrayList<>(adapters);
+    detectCycles(nodes);
+
+    Map<AbstractAdapter<?>, List<AbstractAdapter<?>>> dependencies = new IdentityHashMap<>();
+    Map<AbstractAdapter<?>, List<AbstractAdapter<?>>> dependents = new IdentityHashMap<>();
+    for (AbstractAdapter<?> node : nodes) {
+      dependents.put(node, new ArrayList<>());
+    }
+    for (AbstractAdapter<?> node : nodes) {
+      Set<AbstractAdapter<?>> deps = Collections.newSetFromMap(new IdentityHashMap<>());
+      collectDependencies(node.getClass(), nodes, deps, new HashSet<>());
+      deps.remove(node);
+      List<AbstractAdapter<?>> list = new ArrayList<>(deps);
+      dependencies.put(node, list);
+      list.forEach(dep -> dependents.get(dep).add(node));
+    }
+
+    // Kahn's algorithm; ready adapters are ordered by dependency depth and then class name so the
+    // order is deterministic
+    Map<Class<?>, Integer> depthCache = new HashMap<>();
+    Comparator<AbstractAdapter<?>> readyOrder = Comparator
+        .<AbstractAdapter<?>>comparingInt(a -> depth(a.getClass(), depthCache))
+        .thenComparing(a -> a.getClass().getName());
+    Map<AbstractAdapter<?>, Integer> remaining = new IdentityHashMap<>();
+    PriorityQueue<AbstractAdapter<?>> ready = new PriorityQueue<>(readyOrder);
+    for (AbstractAdapter<?> node : nodes) {
+      remaining.put(node, dependencies.get(node).size());
+      if (dependencies.get(node).isEmpty()) {
+        ready.add(node);
+      }
+    }
+    List<AbstractAdapter<?>> order = new ArrayList<>(nodes.size());
+    while (!ready.isEmpty()) {
+      AbstractAdapter<?> next = ready.poll();
+      order.add(next);
+      for (AbstractAdapter<?> dependent : dependents.get(next)) {
+        if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+          ready.add(dependent);
+        }
+      }
+    }
+    if (order.size() < nodes.size()) {
+      // acyclic declarations can still form a cycle through subtype matches
+      throw new IllegalStateException("Cyclic adapter dependency between: " + nodes.stream()
+          .filter(node -> remaining.get(node) > 0)
+          .map(node -> node.getClass().getSimpleName())
+          .collect(Collectors.joining(", ")));
+    }
+    return new AdapterGraph(Collections.unmodifiableList(order), dependencies);
+  }
+
+  /**
+   * Get the adapters in a topological order (dependencies first).
+   */
+  public List<AbstractAdapter<?>> getOrder() {
+    return order;
+  }
+
+  /**
+   * Get the selected adapters the given adapter depends on.
+   */
+  public List<AbstractAdapter<?>> getDependencies(AbstractAdapter<?> adapter) {
+    return dependencies.getOrDefault(adapter, List.of());
+  }
+
+  private static void collectDependencies(Class<?> cls, List<AbstractAdapter<?>> nodes,
+      Set<AbstractAdapter<?>> result, Set<Class<?>> visited) {
+    if (!visited.add(cls)) {
+      return;
+    }
+    for (Class<?> dep : declaredDependencies(cls)) {
+      boolean selected = false;
+      for (AbstractAdapter<?> node : nodes) {
+        if (dep.isAssignableFrom(node.getClass())) {
+          result.add(node);
+          selected = true;
+        }
+      }
+      if (!selected) {
+        // not selected: depend on whatever it depends on
+        collectDependencies(dep, nodes, result, visited);
+      }
+    }
+  }
+
+  private static void detectCycles(List<AbstractAdapter<?>> nodes) {
+    Set<Class<?>> done = new HashSet<>();
+    for (AbstractAdapter<?> node : nodes) {
+      visit(node.getClass(), new ArrayDeque<>(), new LinkedHashSet<>(), done);
+    }
+  }
+
+  private static void visit(Class<?> cls, Deque<Class<?>> path, Set<Class<?>> onPath,
+      Set<Class<?>> done) {
+    if (done.contains(cls)) {
+      return;
+    }
+    if (onPath.contains(cls)) {
+      List<Class<?>> cycle = new ArrayList<>(path);
+      cycle = cycle.subList(cycle.indexOf(cls), cycle.size());
+      throw new IllegalStateException("Cyclic adapter dependency: " + cycle.stream()
+          .map(Class::getSimpleName)
+          .collect(Collectors.joining(" -> ")) + " -> " + cls.getSimpleName());
+    }
+    path.addLast(cls);
+    onPath.add(cls);
+    for (Class<?> dep : declaredDependencies(cls)) {
+      visit(dep, path, onPath, done);
+    }
+    onPath.remove(cls);
+    path.removeLast();
+    done.add(cls);
+  }
+
+  private static int depth(Class<?> cls, Map<Class<?>, Integer> cache) {
+    Integer cached = cache.get(cls);
+    if (cached != null) {
+      return cached;
+    }
+    int depth = 0;
+    for (Class<?> dep : declaredDependencies(cls)) {
+      depth = Math.max(depth, 1 + depth(dep, cache));
+    }
+    cache.put(cls, depth);
+    return depth;
+  }
+
+  private static List<Class<? extends AbstractAdapter<?>>> declaredDependencies(Class<?> cls) {
+    AdapterDependency ann = cls.getAnnotation(AdapterDependency.class);
+    return ann == null ? List.of() : List.of(ann.value());
+  }
+}
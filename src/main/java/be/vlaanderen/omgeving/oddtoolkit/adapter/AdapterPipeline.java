@@ -0,0 +1,148 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.AdapterPipelineProperties;
+import be.vlaanderen.omgeving.oddtoolkit.model.AbstractInfo;
+import be.vlaanderen.omgeving.oddtoolkit.util.Parallel;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes adapters against the (shared) info models.
+ *
+ * Adapters mutate the info they are given, so the prepared info is the memoized output of an
+ * adapter. The pipeline remembers which adapter already ran against which info instance and skips
+ * it on subsequent runs. When several generators are executed in one job they all share the same
+ * {@link be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo} and pipeline, so loading, fetching
+ * imports, reasoning and extraction happen once and the prepared model is reused by every
+ * generator.
+ *
+ * Adapters are scheduled using their {@link AdapterDependency} graph. When parallel execution is
+ * enabled, adapters without a (transitive) dependency between them run concurrently; an adapter
+ * starts as soon as all its dependencies finished.
+ */
+@Component
+public class AdapterPipeline {
+
+  private static final Logger logger = LoggerFactory.getLogger(AdapterPipeline.class);
+
+  private final AdapterPipelineProperties properties;
+  private final ReentrantLock runLock = new ReentrantLock();
+
+  // info instance (by identity) -> adapters that have already adapted it
+  private final Map<AbstractInfo, Set<AbstractAdapter<?>>> completed =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+
+  public AdapterPipeline() {
+    this(new AdapterPipelineProperties());
+  }
+
+  @Autowired
+  public AdapterPipeline(AdapterPipelineProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Run the given adapters against every info they can adapt. Adapters that already ran against
+   * an info are skipped.
+   *
+   * @param adapters the adapters to run
+   * @param infos    the info models to adapt
+   * @throws IllegalStateException if the adapter dependencies contain a cycle
+   */
+  public void run(List<AbstractAdapter<?>> adapters, AbstractInfo... infos) {
+    AdapterGraph graph = AdapterGraph.of(adapters);
+    runLock.lock();
+    try {
+      if (properties.isParallel() && graph.getOrder().size() > 1) {
+        runParallel(graph, infos);
+      } else {
+        graph.getOrder().forEach(adapter -> runAdapter(adapter, infos));
+      }
+    } finally {
+      runLock.unlock();
+    }
+  }
+
+  /**
+   * Check whether the adapter already ran against the given info instance.
+   */
+  public boolean isCompleted(AbstractAdapter<?> adapter, AbstractInfo info) {
+    Set<AbstractAdapter<?>> done = completed.get(info);
+    return done != null && done.contains(adapter);
+  }
+
+  /**
+   * Forget all adapter executions for the given info so that the next run adapts it again.
+   */
+  public void invalidate(AbstractInfo info) {
+    completed.remove(info);
+  }
+
+  /**
+   * Forget all adapter executions.
+   */
+  public void invalidateAll() {
+    completed.clear();
+  }
+
+  private void runParallel(AdapterGraph graph, AbstractInfo... infos) {
+    Map<AbstractAdapter<?>, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+    try (ExecutorService executor = createExecutor()) {
+      // the topological order guarantees dependencies have a future before their dependents
+      for (AbstractAdapter<?> adapter : graph.getOrder()) {
+        CompletableFuture<?>[] dependencies = graph.getDependencies(adapter).stream()
+            .map(futures::get)
+            .toArray(CompletableFuture[]::new);
+        futures.put(adapter, CompletableFuture.allOf(dependencies)
+            .thenRunAsync(() -> runAdapter(adapter, infos), executor));
+      }
+      CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw e;
+    }
+  }
+
+  private ExecutorService createExecutor() {
+    if ("fixed".equalsIgnoreCase(properties.getExecutor())) {
+      return Parallel.fixedPool(properties.getThreads());
+    }
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
+
+  private void runAdapter(AbstractAdapter<?> adapter, AbstractInfo... infos) {
+    for (AbstractInfo info : infos) {
+      if (info == null || !adapter.canAdapt(info)) {
+        continue;
+      }
+      if (isCompleted(adapter, info)) {
+        logger.debug("Skipping adapter {} for {}: already applied",
+            adapter.getClass().getSimpleName(), info.getClass().getSimpleName());
+        continue;
+      }
+      logger.info("Running adapter: {}", adapter.getClass().getSimpleName());
+      apply(adapter, info);
+      completed.computeIfAbsent(info, k -> ConcurrentHashMap.newKeySet()).add(adapter);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected <T extends AbstractInfo> void apply(AbstractAdapter<?> adapter, T info) {
+    ((AbstractAdapter<T>) adapter).adapt(info);
+  }
+}
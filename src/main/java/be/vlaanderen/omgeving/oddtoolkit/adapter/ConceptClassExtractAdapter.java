@@ -55,15 +55,15 @@ public class ConceptClassExtractAdapter extends AbstractAdapter<OntologyInfo> {
         .forEachRemaining(statement -> {
           // Extract the property and add it to the class info
           Property property = statement.getSubject().as(Property.class);
-          if (classInfo.getProperties().stream().noneMatch(p -> p.getUri().equals(property.getURI()))) {
+          if (classInfo.getPropertyByUri(property.getURI()) == null) {
             PropertyInfo propertyInfo = new PropertyInfo(classInfo.getScope(), property);
             propertyInfo.getCardinalityTo().setMax(1);
             propertyInfo.getCardinalityTo().setMin(0);
-            classInfo.getProperties().add(propertyInfo);
+            classInfo.addProperty(propertyInfo);
           }
         });
     // Filter properties, only properties that have an equivalent concept property should be included
-    classInfo.getProperties().removeIf(propertyInfo -> conceptSchemeInfo.getPropertyConcepts().stream()
-        .noneMatch(conceptProperty -> conceptProperty.getEquivalents().contains(propertyInfo.getUri())));
+    classInfo.removePropertiesIf(propertyInfo ->
+        conceptSchemeInfo.getPropertyConceptByEquivalent(propertyInfo.getUri()) == null);
   }
 }
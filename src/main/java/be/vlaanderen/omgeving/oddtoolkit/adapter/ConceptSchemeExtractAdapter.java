@@ -48,6 +48,7 @@ public class ConceptSchemeExtractAdapter extends AbstractAdapter<ConceptSchemeIn
 
     info.setClassConcepts(classConcepts);
     info.setPropertyConcepts(propertyConcepts);
+    info.indexConcepts();
     return null;
   }
 }
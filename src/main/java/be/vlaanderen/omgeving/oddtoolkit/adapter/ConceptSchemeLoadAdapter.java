@@ -1,25 +1,67 @@
 package be.vlaanderen.omgeving.oddtoolkit.adapter;
 
+import be.vlaanderen.omgeving.oddtoolkit.config.RdfLoadProperties;
 import be.vlaanderen.omgeving.oddtoolkit.model.ConceptSchemeInfo;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelStore;
+import be.vlaanderen.omgeving.oddtoolkit.util.RdfSources;
+import java.util.List;
+import org.apache.jena.query.Dataset;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 @ConditionalOnProperty(prefix = "adapters", name = "concept-scheme-load.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ConceptSchemeLoadAdapter.ConceptSchemeLoadProperties.class)
 @Component("concept-scheme-load")
 public class ConceptSchemeLoadAdapter extends AbstractAdapter<ConceptSchemeInfo> {
 
-  public ConceptSchemeLoadAdapter() {
+  private final ConceptSchemeLoadProperties properties;
+  private final ModelStore modelStore;
+
+  public ConceptSchemeLoadAdapter(ConceptSchemeLoadProperties properties, ModelStore modelStore) {
     super(ConceptSchemeInfo.class);
+    this.properties = properties;
+    this.modelStore = modelStore;
   }
 
   @Override
   public ConceptSchemeInfo adapt(ConceptSchemeInfo info) {
-    // Load the concept scheme from the source
-    Model model = ModelFactory.createDefaultModel();
-    model.read(info.getConfig().getConceptsFilePath());
-    info.setModel(model);
+    // Load the concept scheme from the sources, every source file is parsed into a named graph of its own
+    // and the model is the merge of them
+    List<String> locations = RdfSources.resolve(info.getConfig().getConceptsSources());
+    if (locations.isEmpty()) {
+      throw new IllegalArgumentException("No concept scheme sources configured");
+    }
+    Dataset sources = RdfSources.load(locations, properties, modelStore);
+    info.setSources(sources);
+    info.setModel(RdfSources.merge(sources, "concepts", modelStore));
     return info;
   }
+
+  /**
+   * Properties for loading the concept scheme. Large SKOS schemes can be trimmed while parsing by
+   * dropping the predicates the pipeline does not use, e.g. skos:altLabel or skos:scopeNote.
+   *
+   * <pre>
+   * adapters:
+   *   concept-scheme-load:
+   *     format: ""
+   *     parallel: true
+   *     parallelism: 0
+   *     chunk-size-bytes: 8388608
+   *     keep-predicates: []
+   *     drop-predicates:
+   *       - "http://www.w3.org/2004/02/skos/core#altLabel"
+   *     cache-enabled: true
+   *     cache-dir: "target/cache/parsed"
+   *     cache-format: "RDF-THRIFT"
+   *     cache-max-entries: 200
+   *     cache-max-bytes: 1073741824
+   * </pre>
+   */
+  @ConfigurationProperties(prefix = "adapters.concept-scheme-load")
+  public static class ConceptSchemeLoadProperties extends RdfLoadProperties {
+
+  }
 }
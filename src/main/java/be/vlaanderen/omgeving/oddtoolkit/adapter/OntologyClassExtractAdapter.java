@@ -1,10 +1,20 @@
 package be.vlaanderen.omgeving.oddtoolkit.adapter;
 
+import be.vlaanderen.omgeving.oddtoolkit.model.ClassHierarchy;
 import be.vlaanderen.omgeving.oddtoolkit.model.ClassInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.Scope;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelSnapshot;
+import be.vlaanderen.omgeving.oddtoolkit.util.Parallel;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ResIterator;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
@@ -14,6 +24,8 @@ import org.apache.jena.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 @Component("ontology-class-extract")
@@ -21,12 +33,16 @@ import org.springframework.stereotype.Component;
     OntologyReasonerAdapter.class,
 })
 @ConditionalOnProperty(prefix = "adapters", name = "ontology-class-extract.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(OntologyClassExtractAdapter.ClassExtractProperties.class)
 public class OntologyClassExtractAdapter extends AbstractAdapter<OntologyInfo> {
 
   public static final Logger logger = LoggerFactory.getLogger(OntologyClassExtractAdapter.class);
 
-  public OntologyClassExtractAdapter() {
+  private final ClassExtractProperties properties;
+
+  public OntologyClassExtractAdapter(ClassExtractProperties properties) {
     super(OntologyInfo.class);
+    this.properties = properties;
   }
 
   @Override
@@ -47,63 +63,80 @@ public class OntologyClassExtractAdapter extends AbstractAdapter<OntologyInfo> {
 
     logger.info("Extracted {} classes from the ontology", info.getClasses().size());
 
-    // For each class, extract its superclasses
-    List<ClassInfo> snapshot = new ArrayList<>(initialClasses);
-    for (ClassInfo classInfo : snapshot) {
-      this.extractSuperClasses(classInfo, info);
-      // Add discovered superclasses to ontology info uniquely by URI
-      for (ClassInfo superClass : classInfo.getSuperClasses()) {
-        info.addClass(superClass);
+    boolean parallel = properties.isParallel() && initialClasses.size() > 1;
+    Model inferredModel = info.getInferredModel();
+    // Graph to query, read by several threads when parallel
+    Model readModel = parallel ? ModelSnapshot.readSafe(inferredModel) : inferredModel;
+    // For each class, find the resources of its superclasses
+    List<List<Resource>> superClassResources = map(parallel, initialClasses,
+        classInfo -> findSuperClasses(classInfo, readModel));
+
+    // Superclasses that are not (yet) known are created once, with the scope as seen from the
+    // first class (in extraction order) that refers to them
+    Map<String, Scope> newClassScopes = new LinkedHashMap<>();
+    for (int i = 0; i < initialClasses.size(); i++) {
+      ClassInfo classInfo = initialClasses.get(i);
+      for (Resource resource : superClassResources.get(i)) {
+        if (info.getClassByUri(resource.getURI()) == null) {
+          newClassScopes.putIfAbsent(resource.getURI(), scopeOf(resource, classInfo));
+        }
+      }
+    }
+    Map<String, ClassInfo> canonical = new ConcurrentHashMap<>();
+    map(parallel, new ArrayList<>(newClassScopes.entrySet()), entry -> canonical.computeIfAbsent(
+        entry.getKey(),
+        uri -> createClass(uri, entry.getValue(), info.getModel(), inferredModel, readModel)));
+
+    // Link the classes to the canonical superclass instances
+    for (int i = 0; i < initialClasses.size(); i++) {
+      ClassInfo classInfo = initialClasses.get(i);
+      for (Resource resource : superClassResources.get(i)) {
+        ClassInfo superClass = info.getClassByUri(resource.getURI());
+        if (superClass == null) {
+          superClass = canonical.get(resource.getURI());
+          info.addClass(superClass);
+        }
+        classInfo.getSuperClasses().add(superClass);
       }
+      logger.debug("Extracted {} superclasses for class {}", classInfo.getSuperClasses().size(),
+          classInfo.getResource().getLocalName());
     }
 
-    updateReferences(info);
+    buildHierarchy(info);
     return info;
   }
 
-  private void updateReferences(OntologyInfo info) {
-    // Update the references to the class in superclasses
-    for (ClassInfo classInfo : info.getClasses()) {
-      // Update references in superclasses
-      List<ClassInfo> superClasses = new ArrayList<>(classInfo.getSuperClasses());
-      for (ClassInfo superClass : superClasses) {
-        ClassInfo updatedSuperClass = info.getClassByUri(superClass.getUri());
-        // Check if the superClass is the same instance as the updatedSuperClass, if not update the reference
-        if (updatedSuperClass != null && updatedSuperClass != superClass) {
-          classInfo.getSuperClasses().remove(superClass);
-          classInfo.getSuperClasses().add(updatedSuperClass);
-        }
-      }
+  private void buildHierarchy(OntologyInfo info) {
+    ClassHierarchy hierarchy = ClassHierarchy.build(info.getClasses());
+    for (List<String> cycle : hierarchy.getCycles()) {
+      logger.warn("Cycle in the class hierarchy: {}", String.join(" -> ", cycle));
     }
+    info.setClassHierarchy(hierarchy);
   }
 
-  private void extractSuperClasses(ClassInfo classInfo, OntologyInfo info) {
-    logger.info("Extracting superclasses for class {}", classInfo.getResource().getLocalName());
-    if (info.getInferredModel() != null) {
+  private List<Resource> findSuperClasses(ClassInfo classInfo, Model readModel) {
+    List<Resource> superClasses = new ArrayList<>();
+    if (readModel != null) {
       // Get all the superclasses of the class from the inferred model
-      info.getInferredModel()
-          .listStatements(classInfo.getResource(), RDFS.subClassOf, (Resource) null)
+      readModel.listStatements(classInfo.getResource().inModel(readModel), RDFS.subClassOf,
+              (Resource) null)
           .forEachRemaining(statement -> {
             // Skip OWL restrictions as they are not actual superclasses but rather constraints on the class
             // Skip if the class is equal to the superclass to avoid circular references
             if (isClassStatement(statement) && !statement.getObject().asResource().getURI()
                 .equals(classInfo.getUri())) {
-              ClassInfo superClass = extractClassFromInferredModel(statement.getResource(),
-                  classInfo, info);
-              classInfo.getSuperClasses().add(superClass);
+              superClasses.add(statement.getResource());
             }
           });
     } else {
       classInfo.getResource().listProperties(RDFS.subClassOf).forEachRemaining(statement -> {
         // Skip OWL restrictions as they are not actual superclasses but rather constraints on the class
         if (isClassStatement(statement)) {
-          ClassInfo superClass = extractClassFromInferredModel(statement.getResource(),
-              classInfo, info);
-          classInfo.getSuperClasses().add(superClass);
+          superClasses.add(statement.getResource());
         }
       });
     }
-    logger.info("Extracted superclasses from the ontology: {}", classInfo.getSuperClasses().size());
+    return superClasses;
   }
 
   private boolean isClassStatement(Statement statement) {
@@ -112,21 +145,52 @@ public class OntologyClassExtractAdapter extends AbstractAdapter<OntologyInfo> {
         && statement.getObject().asResource().getNameSpace() != null;
   }
 
-  private ClassInfo extractClassFromInferredModel(Resource resource, ClassInfo classInfo,
-      OntologyInfo info) {
-    // If the resource URI is in the same namespace then the scope is ONTOLOGY else EXTERNAL
-    Scope scope = resource.getNameSpace()
-        .equals(classInfo.getResource().getNameSpace())
+  // If the resource URI is in the same namespace then the scope is ONTOLOGY else EXTERNAL
+  private static Scope scopeOf(Resource resource, ClassInfo classInfo) {
+    return resource.getNameSpace().equals(classInfo.getResource().getNameSpace())
         ? Scope.ONTOLOGY
         : Scope.EXTERNAL;
-    // Extract the owl classes from the inferred model
-    if (info.getInferredModel() != null) {
-      // Find the resource in the inferred model specifically with the same URI
-      Resource inferredResource = info.getInferredModel().getResource(resource.getURI());
-      if (inferredResource != null) {
-        return new ClassInfo(scope, inferredResource);
-      }
+  }
+
+  private static ClassInfo createClass(String uri, Scope scope, Model model, Model inferredModel,
+      Model readModel) {
+    if (inferredModel == null) {
+      return new ClassInfo(scope, model.getResource(uri));
+    }
+    // Read the class from the (thread-safe) read model, but keep it bound to the inferred model
+    // like the classes extracted sequentially
+    ClassInfo classInfo = new ClassInfo(scope, readModel.getResource(uri));
+    classInfo.setResource(inferredModel.getResource(uri));
+    return classInfo;
+  }
+
+  // Apply the function to every item, in parallel if enabled, keeping the order of the items
+  private <T, R> List<R> map(boolean parallel, List<T> items, Function<T, R> function) {
+    if (!parallel) {
+      return items.stream().map(function).toList();
     }
-    return new ClassInfo(scope, resource);
+    return Parallel.map(items, properties.getParallelism(), function);
+  }
+
+  /**
+   * Properties for the class extraction.
+   *
+   * <pre>
+   * adapters:
+   *   ontology-class-extract:
+   *     parallel: true
+   *     parallelism: 0
+   * </pre>
+   */
+  @Getter
+  @Setter
+  @ConfigurationProperties(prefix = "adapters.ontology-class-extract")
+  public static class ClassExtractProperties {
+
+    // query the superclasses of the classes concurrently
+    private boolean parallel = false;
+
+    // number of threads when extracting in parallel, 0 = number of available processors
+    private int parallelism = 0;
   }
 }
@@ -1,41 +1,58 @@
 package be.vlaanderen.omgeving.oddtoolkit.adapter;
 
+import be.vlaanderen.omgeving.oddtoolkit.model.ImportGraph;
 import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.Scope;
+import be.vlaanderen.omgeving.oddtoolkit.util.DiskCache;
+import be.vlaanderen.omgeving.oddtoolkit.util.InMemoryModelStore;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelStore;
+import be.vlaanderen.omgeving.oddtoolkit.util.RdfCacheFile;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.Lang;
 import org.apache.jena.vocabulary.OWL2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
-import java.nio.file.attribute.FileTime;
 
 /**
- * Adapter responsible for fetching external ontologies referenced through owl:imports
+ * Adapter responsible for fetching external ontologies referenced through owl:imports.
+ * The imports of fetched ontologies are followed as well (up to imports-max-depth), so the
+ * external ontologies contain the whole import closure.
  */
 @AdapterDependency({
     OntologyLoadAdapter.class
@@ -51,33 +68,44 @@ public class OntologyExtractExternalAdapter extends AbstractAdapter<OntologyInfo
   private final ExtractExternalProperties properties;
   private final HttpClient httpClient;
 
-  // directory for file-based cache (may be null if disabled)
-  private final Path cacheDir;
+  // bounded file-based cache (may be null if disabled)
+  private final DiskCache diskCache;
+  private final Lang cacheLang;
+
+  // keeps the fetched models, persistent stores reuse them between runs
+  private final ModelStore modelStore;
 
   public OntologyExtractExternalAdapter(ExtractExternalProperties properties) {
+    this(properties, new InMemoryModelStore());
+  }
+
+  @Autowired
+  public OntologyExtractExternalAdapter(ExtractExternalProperties properties,
+      ModelStore modelStore) {
     super(OntologyInfo.class);
     this.properties = properties;
+    this.modelStore = modelStore;
     var builder = HttpClient.newBuilder()
         .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()));
     if (properties.isFollowRedirects()) {
       builder.followRedirects(HttpClient.Redirect.NORMAL);
     }
     this.httpClient = builder.build();
+    this.cacheLang = RdfCacheFile.resolveLang(properties.getCacheFormat());
 
-    // initialize file cache directory if caching enabled
-    Path dirPath = null;
+    // initialize file cache if caching enabled
+    DiskCache cache = null;
     if (properties.isCacheEnabled() && properties.getCacheDir() != null && !properties.getCacheDir()
         .isBlank()) {
-      Path tmp = Paths.get(properties.getCacheDir());
       try {
-        Files.createDirectories(tmp);
-        dirPath = tmp;
+        cache = new DiskCache(Paths.get(properties.getCacheDir()), properties.getCacheMaxEntries(),
+            properties.getCacheMaxBytes());
       } catch (Exception e) {
         logger.warn("Unable to create cache directory {}: {}", properties.getCacheDir(),
             e.getMessage());
       }
     }
-    this.cacheDir = dirPath;
+    this.diskCache = cache;
   }
 
   @Override
@@ -86,86 +114,300 @@ public class OntologyExtractExternalAdapter extends AbstractAdapter<OntologyInfo
       return info;
     }
 
-    var externalReferences = info.getModel().listStatements().toList().stream()
-        .filter(statement -> statement.getPredicate().equals(OWL2.imports))
-        .map(statement -> statement.getObject().toString())
-        .distinct()
-        .toList();
+    var importStatements = listImports(info.getModel());
 
-    if (externalReferences.isEmpty()) {
+    if (importStatements.isEmpty()) {
       return info;
     }
 
     if (info.getExternalOntologies() == null) {
       info.setExternalOntologies(new HashMap<>());
     }
+    if (info.getImportGraph() == null) {
+      info.setImportGraph(new ImportGraph());
+    }
+    var graph = info.getImportGraph();
+
+    // Level 1: direct imports of the root ontology
+    Map<String, String> frontier = new LinkedHashMap<>();
+    for (var statement : importStatements) {
+      var source = normalizeReference(statement.getSubject().toString());
+      var reference = statement.getObject().toString();
+      var key = normalizeReference(reference);
+      graph.addNode(source, statement.getSubject().toString(), 0);
+      graph.setResolved(source, true);
+      graph.addImport(source, key);
+      if (graph.addNode(key, reference, 1)) {
+        frontier.put(key, reference);
+      }
+    }
 
-    for (var reference : externalReferences) {
-      if (info.getExternalOntologies().containsKey(reference)) {
-        continue;
+    // Resolve the import closure breadth first, fetching each level in parallel
+    int depth = 1;
+    int maxDepth = properties.getImportsMaxDepth();
+    while (!frontier.isEmpty()) {
+      var pending = frontier.entrySet().stream()
+          .filter(entry -> !info.getExternalOntologies().containsKey(entry.getValue()))
+          .map(Map.Entry::getValue)
+          .toList();
+      Map<String, Model> resolved = properties.getFetchParallelism() > 1 && !pending.isEmpty()
+          ? resolveConcurrently(pending)
+          : resolveSequentially(pending);
+
+      // Register in reference order so the result does not depend on fetch timing
+      Map<String, String> next = new LinkedHashMap<>();
+      int childDepth = depth + 1;
+      for (var entry : frontier.entrySet()) {
+        var key = entry.getKey();
+        var reference = entry.getValue();
+        var externalInfo = info.getExternalOntologies().get(reference);
+        var model = resolved.get(reference);
+        if (externalInfo == null && model != null) {
+          externalInfo = new OntologyInfo(Scope.EXTERNAL, info.getConfig(), null);
+          externalInfo.setModel(model);
+          info.getExternalOntologies().put(reference, externalInfo);
+        }
+        graph.setResolved(key, externalInfo != null);
+        if (externalInfo == null) {
+          continue;
+        }
+        listImports(externalInfo.getModel()).stream()
+            .filter(statement -> statement.getObject().isURIResource())
+            .forEach(statement -> {
+              var childReference = statement.getObject().toString();
+              var childKey = normalizeReference(childReference);
+              graph.addImport(key, childKey);
+              if (graph.addNode(childKey, childReference, childDepth)) {
+                next.put(childKey, childReference);
+              }
+            });
       }
 
-      Model model = null;
+      if (maxDepth > 0 && depth >= maxDepth) {
+        if (!next.isEmpty()) {
+          logger.info("Not following {} imports beyond depth {}", next.size(), maxDepth);
+        }
+        break;
+      }
+      frontier = next;
+      depth++;
+    }
 
-      // Check file cache (if configured and caching enabled)
-      if (properties.isCacheEnabled() && cacheDir != null) {
-        try {
-          var file = cacheFileFor(reference);
-          if (Files.exists(file)) {
-            var lastModified = Files.getLastModifiedTime(file).toMillis();
-            if (properties.getCacheTtlMs() <= 0
-                || (System.currentTimeMillis() - lastModified) <= properties.getCacheTtlMs()) {
-              var loaded = loadModelFromFile(file);
-              if (loaded != null) {
-                logger.debug("Loaded external ontology from file cache for {}", reference);
-                model = loaded;
-              }
-            } else {
-              logger.debug("File cache expired for {}", reference);
-            }
+    logger.info("Resolved import closure of {} ontologies", info.getExternalOntologies().size());
+    if (diskCache != null) {
+      logger.info("File cache {}", diskCache);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Import graph:\n{}", graph);
+    }
+    return info;
+  }
+
+  // Uses the predicate index of the graph instead of scanning (and copying) every statement
+  static List<Statement> listImports(Model model) {
+    List<Statement> imports = new ArrayList<>();
+    model.listStatements(null, OWL2.imports, (RDFNode) null).forEachRemaining(imports::add);
+    return imports;
+  }
+
+  // Normalized key used to deduplicate imports (fragmentless, trailing-slashless)
+  static String normalizeReference(String uri) {
+    return stripTrailingSlash(stripFragment(uri));
+  }
+
+  private Map<String, Model> resolveSequentially(List<String> references) {
+    Map<String, Model> resolved = new HashMap<>();
+    for (var reference : references) {
+      var model = loadCached(reference);
+      if (model == null) {
+        for (var candidate : candidatesFor(reference)) {
+          model = fetchExternalOntology(candidate);
+          if (model != null) {
+            break;
           }
-        } catch (Exception e) {
-          logger.warn("Error reading file cache for {}: {}", reference, e.getMessage());
+          logger.debug("Failed to fetch candidate {} for original reference {}", candidate,
+              reference);
         }
+        model = storeCached(reference, model);
       }
+      resolved.put(reference, model);
+    }
+    return resolved;
+  }
 
-      if (model == null) {
-        // Build list of URIs to try: original + mirrors (if any)
-        List<String> toTry = new ArrayList<>();
-        toTry.add(reference);
-
-        // Lookup mirrors using normalized keys (exact, fragmentless, trailing-slashless)
-        var mirrors = findMirrorsFor(reference);
-        if (mirrors != null && !mirrors.isEmpty()) {
-          toTry.addAll(mirrors);
+  /**
+   * Resolve all references concurrently on virtual threads. At most fetchParallelism HTTP
+   * requests are in flight at the same time. The candidates (original + mirrors) of a reference
+   * are hedged: the next candidate is started when the previous one failed or did not answer
+   * within mirrorHedgeDelayMs, and the first successfully parsed model wins.
+   */
+  private Map<String, Model> resolveConcurrently(List<String> references) {
+    Map<String, Model> resolved = new ConcurrentHashMap<>();
+    var permits = new Semaphore(properties.getFetchParallelism());
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (var reference : references) {
+        futures.add(executor.submit(() -> {
+          var model = loadCached(reference);
+          if (model == null) {
+            model = fetchFirst(reference, candidatesFor(reference), executor, permits);
+            model = storeCached(reference, model);
+          }
+          if (model != null) {
+            resolved.put(reference, model);
+          }
+          return null;
+        }));
+      }
+      for (var future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          logger.warn("Failed resolving external ontology: {}", e.getCause().getMessage());
         }
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      logger.warn("Interrupted while fetching external ontologies");
+    }
+    return resolved;
+  }
 
-        for (var candidate : toTry) {
-          model = fetchExternalOntology(candidate);
+  private Model fetchFirst(String reference, List<String> candidates, ExecutorService executor,
+      Semaphore permits) throws InterruptedException {
+    CompletionService<Model> completion = new ExecutorCompletionService<>(executor);
+    List<Future<Model>> started = new ArrayList<>();
+    long hedgeDelay = Math.max(0, properties.getMirrorHedgeDelayMs());
+    try {
+      started.add(completion.submit(() -> fetchWithPermit(candidates.getFirst(), permits)));
+      int running = 1;
+      while (running > 0) {
+        boolean canHedge = started.size() < candidates.size();
+        Future<Model> done = canHedge
+            ? completion.poll(hedgeDelay, TimeUnit.MILLISECONDS)
+            : completion.take();
+        if (done != null) {
+          running--;
+          var model = done.isCancelled() ? null : getQuietly(done);
           if (model != null) {
-            if (properties.isCacheEnabled() && cacheDir != null) {
-              try {
-                putInFileCache(reference, model);
-              } catch (Exception e) {
-                logger.warn("Failed to write file cache for {}: {}", reference, e.getMessage());
-              }
-            }
-            var externalInfo = new OntologyInfo(Scope.EXTERNAL, info.getConfig(), null);
-            externalInfo.setModel(model);
-            info.getExternalOntologies().put(reference, externalInfo);
-            break;
-          } else {
-            logger.debug("Failed to fetch candidate {} for original reference {}", candidate,
-                reference);
+            return model;
           }
+          logger.debug("Failed to fetch candidate {} for original reference {}",
+              candidates.get(started.indexOf(done)), reference);
+        }
+        // hedge: start the next candidate when the running ones are slow or all failed
+        if (canHedge && (done == null || running == 0)) {
+          var candidate = candidates.get(started.size());
+          started.add(completion.submit(() -> fetchWithPermit(candidate, permits)));
+          running++;
         }
-      } else {
-        var externalInfo = new OntologyInfo(Scope.EXTERNAL, info.getConfig(), null);
-        externalInfo.setModel(model);
-        info.getExternalOntologies().put(reference, externalInfo);
       }
+      return null;
+    } finally {
+      started.forEach(future -> future.cancel(true));
+    }
+  }
+
+  private Model fetchWithPermit(String candidate, Semaphore permits) throws InterruptedException {
+    permits.acquire();
+    try {
+      return fetchExternalOntology(candidate);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private static Model getQuietly(Future<Model> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      return null;
+    }
+  }
+
+  // Build list of URIs to try: original + mirrors (if any)
+  private List<String> candidatesFor(String reference) {
+    List<String> toTry = new ArrayList<>();
+    toTry.add(reference);
+
+    // Lookup mirrors using normalized keys (exact, fragmentless, trailing-slashless)
+    var mirrors = findMirrorsFor(reference);
+    if (mirrors != null && !mirrors.isEmpty()) {
+      toTry.addAll(mirrors);
+    }
+    return toTry;
+  }
+
+  // Check the model store, then the file cache (if caching enabled)
+  private Model loadCached(String reference) {
+    if (properties.isCacheEnabled() && modelStore.isPersistent()) {
+      var stored = modelStore.get(storeName(reference));
+      long storedAt = modelStore.storedAt(storeName(reference));
+      if (stored != null && (properties.getCacheTtlMs() <= 0
+          || (System.currentTimeMillis() - storedAt) <= properties.getCacheTtlMs())) {
+        logger.debug("Loaded external ontology from model store for {}", reference);
+        return stored;
+      } else if (stored != null) {
+        logger.debug("Model store entry expired for {}", reference);
+      }
+    }
+    var model = loadFromFileCache(reference);
+    if (model != null && modelStore.isPersistent()) {
+      return modelStore.put(storeName(reference), model);
+    }
+    return model;
+  }
+
+  // Keep a fetched model in the file cache and the model store, returns the model to use
+  private Model storeCached(String reference, Model model) {
+    storeInFileCache(reference, model);
+    if (model == null || !properties.isCacheEnabled()) {
+      return model;
+    }
+    return modelStore.put(storeName(reference), model);
+  }
+
+  private static String storeName(String reference) {
+    return "external:" + reference;
+  }
+
+  // Check file cache (if configured and caching enabled)
+  private Model loadFromFileCache(String reference) {
+    if (!properties.isCacheEnabled() || diskCache == null) {
+      return null;
+    }
+    try {
+      var key = cacheKeyFor(reference);
+      var file = diskCache.get(key);
+      if (file != null) {
+        var lastModified = Files.getLastModifiedTime(file).toMillis();
+        if (properties.getCacheTtlMs() <= 0
+            || (System.currentTimeMillis() - lastModified) <= properties.getCacheTtlMs()) {
+          var loaded = loadModelFromFile(file);
+          if (loaded != null) {
+            logger.debug("Loaded external ontology from file cache for {}", reference);
+            return loaded;
+          }
+        } else {
+          logger.debug("File cache expired for {}", reference);
+          diskCache.remove(key);
+        }
+      }
+    } catch (Exception e) {
+      logger.warn("Error reading file cache for {}: {}", reference, e.getMessage());
+    }
+    return null;
+  }
+
+  private void storeInFileCache(String reference, Model model) {
+    if (model == null || !properties.isCacheEnabled() || diskCache == null) {
+      return;
+    }
+    try {
+      putInFileCache(reference, model);
+    } catch (Exception e) {
+      logger.warn("Failed to write file cache for {}: {}", reference, e.getMessage());
     }
-    return info;
   }
 
   private List<String> findMirrorsFor(String reference) {
@@ -217,43 +459,19 @@ public class OntologyExtractExternalAdapter extends AbstractAdapter<OntologyInfo
   }
 
   private void putInFileCache(String reference, Model model) throws Exception {
-    if (cacheDir == null) {
+    if (diskCache == null) {
       return;
     }
-    var file = cacheFileFor(reference);
-    var tmp = cacheDir.resolve(file.getFileName().toString() + ".tmp");
-    try {
-      try (var out = Files.newOutputStream(tmp)) {
-        model.write(out, properties.getCacheFormat());
-      }
-      try {
-        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
-      } catch (AtomicMoveNotSupportedException amnse) {
-        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
-      }
-      try {
-        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
-      } catch (Exception e) { /* ignore */ }
-    } finally {
-      try {
-        if (Files.exists(tmp)) {
-          Files.deleteIfExists(tmp);
-        }
-      } catch (Exception e) { /* ignore */ }
-    }
+    diskCache.put(cacheKeyFor(reference), RdfCacheFile.writer(model, cacheLang));
   }
 
   private Model loadModelFromFile(Path file) {
-    try (InputStream in = Files.newInputStream(file)) {
-      var model = ModelFactory.createDefaultModel();
-      try {
-        model.read(in, null, properties.getCacheFormat());
-        if (!model.isEmpty()) {
-          return model;
-        }
-      } catch (Exception ex) {
-        logger.debug("Failed to parse cached model {} with format {}: {}", file,
-            properties.getCacheFormat(), ex.getMessage());
+    try {
+      var model = RdfCacheFile.read(file, cacheLang);
+      if (model == null) {
+        logger.debug("Ignoring cached model {}: not written as {}", file, cacheLang.getLabel());
+      } else if (!model.isEmpty()) {
+        return model;
       }
     } catch (Exception e) {
       logger.warn("Failed to read cached model file {}: {}", file, e.getMessage());
@@ -261,10 +479,9 @@ public class OntologyExtractExternalAdapter extends AbstractAdapter<OntologyInfo
     return null;
   }
 
-  private Path cacheFileFor(String reference) throws Exception {
+  private String cacheKeyFor(String reference) throws Exception {
     var hash = sha256Hex(reference);
-    var ext = ".ttl";
-    return cacheDir.resolve(hash + ext);
+    return hash + RdfCacheFile.extension(cacheLang);
   }
 
   private static String sha256Hex(String input) throws Exception {
@@ -335,8 +552,9 @@ public class OntologyExtractExternalAdapter extends AbstractAdapter<OntologyInfo
           break;
         }
       } catch (InterruptedException ie) {
+        // expected when a hedged request lost the race
         Thread.currentThread().interrupt();
-        logger.warn("Interrupted while fetching {}", reference);
+        logger.debug("Interrupted while fetching {}", reference);
         return null;
       } catch (IOException ioe) {
         lastError = ioe.getMessage();
@@ -431,8 +649,12 @@ public class OntologyExtractExternalAdapter extends AbstractAdapter<OntologyInfo
    *     cache-enabled: true
    *     cache-ttl-ms: 3600000
    *     cache-max-entries: 100
+   *     cache-max-bytes: 536870912
    *     cache-dir: "target/cache/ontology-extract-external"
    *     cache-format: "TURTLE"
+   *     fetch-parallelism: 4
+   *     mirror-hedge-delay-ms: 500
+   *     imports-max-depth: 5
    *     mirrors:
    *       "http://example.org/ontology":
    *         - "https://mirror1.example.org/ontology"
@@ -452,14 +674,26 @@ public class OntologyExtractExternalAdapter extends AbstractAdapter<OntologyInfo
 
     private boolean cacheEnabled = true;
     private long cacheTtlMs = 3600000L; // 1 hour
+    // limits of the file cache, least recently used entries are evicted first, 0 = no limit
     private int cacheMaxEntries = 100;
+    private long cacheMaxBytes = 512L * 1024 * 1024;
 
     // file-based cache directory (relative or absolute). If null/blank -> no file cache.
     private String cacheDir = "target/cache/ontology-extract-external";
 
-    // format used when writing/reading cached models. Jena language names, e.g. TURTLE, RDF/XML
+    // format used when writing/reading cached models. Jena language names, e.g. TURTLE,
+    // N-TRIPLES, or the (faster) binary RDF-THRIFT and RDF-PROTO
     private String cacheFormat = "TURTLE";
 
+    // maximum number of concurrent HTTP requests when fetching imports, 1 = fetch one at a time
+    private int fetchParallelism = 4;
+
+    // delay before a reference's next mirror is raced against the pending request(s), 0 = race all
+    private long mirrorHedgeDelayMs = 500L;
+
+    // how deep owl:imports of fetched ontologies are followed, 1 = direct imports only, 0 = no limit
+    private int importsMaxDepth = 5;
+
     // Mirrors are now configured as a list of entries for better YAML compatibility.
     private List<MirrorEntry> mirrors = new ArrayList<>();
 
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 @Component("ontology-individuals-extract")
 @AdapterDependency({
     OntologyClassExtractAdapter.class,
+    ConceptClassExtractAdapter.class
 })
 @ConditionalOnProperty(prefix = "adapters", name = "ontology-individuals-extract.enabled", havingValue = "true", matchIfMissing = true)
 public class OntologyExtractIndividualsAdapter extends AbstractAdapter<OntologyInfo> {
@@ -1,25 +1,65 @@
 package be.vlaanderen.omgeving.oddtoolkit.adapter;
 
+import be.vlaanderen.omgeving.oddtoolkit.config.RdfLoadProperties;
 import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelStore;
+import be.vlaanderen.omgeving.oddtoolkit.util.RdfSources;
+import java.util.List;
+import org.apache.jena.query.Dataset;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 @ConditionalOnProperty(prefix = "adapters", name = "ontology-load.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(OntologyLoadAdapter.OntologyLoadProperties.class)
 @Component("ontology-load")
 public class OntologyLoadAdapter extends AbstractAdapter<OntologyInfo> {
 
-  public OntologyLoadAdapter() {
+  private final OntologyLoadProperties properties;
+  private final ModelStore modelStore;
+
+  public OntologyLoadAdapter(OntologyLoadProperties properties, ModelStore modelStore) {
     super(OntologyInfo.class);
+    this.properties = properties;
+    this.modelStore = modelStore;
   }
 
   @Override
   public OntologyInfo adapt(OntologyInfo info) {
-    // Load the ontology from the source
-    Model model = ModelFactory.createDefaultModel();
-    model.read(info.getConfig().getOntologyFilePath());
-    info.setModel(model);
+    // Load the ontology from the sources, every source file is parsed into a named graph of its own
+    // and the model is the merge of them
+    List<String> locations = RdfSources.resolve(info.getConfig().getOntologySources());
+    if (locations.isEmpty()) {
+      throw new IllegalArgumentException("No ontology sources configured");
+    }
+    Dataset sources = RdfSources.load(locations, properties, modelStore);
+    info.setSources(sources);
+    info.setModel(RdfSources.merge(sources, "ontology", modelStore));
     return info;
   }
+
+  /**
+   * Properties for loading the ontology.
+   *
+   * <pre>
+   * adapters:
+   *   ontology-load:
+   *     format: ""
+   *     parallel: true
+   *     parallelism: 0
+   *     chunk-size-bytes: 8388608
+   *     keep-predicates: []
+   *     drop-predicates: []
+   *     cache-enabled: true
+   *     cache-dir: "target/cache/parsed"
+   *     cache-format: "RDF-THRIFT"
+   *     cache-max-entries: 200
+   *     cache-max-bytes: 1073741824
+   * </pre>
+   */
+  @ConfigurationProperties(prefix = "adapters.ontology-load")
+  public static class OntologyLoadProperties extends RdfLoadProperties {
+
+  }
 }
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 
 @AdapterDependency({
     OntologyClassExtractAdapter.class,
+    ConceptClassExtractAdapter.class
 })
 @ConditionalOnProperty(prefix = "adapters", name = "ontology-property-extra.enabled", havingValue = "true", matchIfMissing = true)
 @Component("ontology-property-extra")
@@ -39,14 +40,12 @@ public class OntologyPropertyExtraAdapter extends AbstractAdapter<OntologyInfo>
       }
       // Add to all ontology classes (preserve scope for each class)
       for (ClassInfo c : info.getClasses()) {
-        boolean exists = c.getProperties().stream()
-            .anyMatch(p -> extraProperty.getUri().equals(p.getUri()));
-        if (exists) {
+        if (c.getPropertyByUri(extraProperty.getUri()) != null) {
           continue;
         }
         PropertyInfo propertyInfo = getPropertyInfo(extraProperty,
             c);
-        c.getProperties().add(propertyInfo);
+        c.addProperty(propertyInfo);
       }
     }
   }
@@ -5,8 +5,18 @@ import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.PropertyInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.PropertyInfo.Cardinality;
 import be.vlaanderen.omgeving.oddtoolkit.model.UriTemplate;
-import java.util.ArrayList;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelSnapshot;
+import be.vlaanderen.omgeving.oddtoolkit.util.Parallel;
+import be.vlaanderen.omgeving.oddtoolkit.util.RestrictionScanner;
+import be.vlaanderen.omgeving.oddtoolkit.util.RestrictionScanner.PropertyRestriction;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.vocabulary.OWL2;
@@ -15,37 +25,95 @@ import org.apache.jena.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 @Component("ontology-property-extract")
 @AdapterDependency({
     OntologyClassExtractAdapter.class,
-    OntologyUriTemplateAdapter.class
+    OntologyUriTemplateAdapter.class,
+    // extra properties are added before the extracted ones
+    OntologyPropertyExtraAdapter.class
 })
 @ConditionalOnProperty(prefix = "adapters", name = "ontology-property-extract.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(OntologyPropertyExtractAdapter.PropertyExtractProperties.class)
 public class OntologyPropertyExtractAdapter extends AbstractAdapter<OntologyInfo> {
 
   public static final Logger logger = LoggerFactory.getLogger(OntologyPropertyExtractAdapter.class);
 
-  public OntologyPropertyExtractAdapter() {
+  private final PropertyExtractProperties properties;
+
+  public OntologyPropertyExtractAdapter(PropertyExtractProperties properties) {
     super(OntologyInfo.class);
+    this.properties = properties;
   }
 
   @Override
   public OntologyInfo adapt(OntologyInfo info) {
-    List<ClassInfo> allClasses = info.getClasses(); // snapshot already returned by getClasses()
-    for (ClassInfo ci : new ArrayList<>(allClasses)) {
-      this.extractProperties(ci);
-      this.determineIdentifiers(ci);
-      this.determineInverseProperties(ci, info);
+    List<ClassInfo> allClasses = info.getClasses(); // immutable snapshot returned by getClasses()
+    boolean parallel = properties.isParallel() && allClasses.size() > 1;
+    ReadView view = new ReadView(info.getInferredModel());
+    if (parallel || properties.isBulk()) {
+      // snapshots and scans list statements in another order than inference models, the
+      // restrictions are added in the order of the graph the classes are bound to
+      view = view.withGraphOrder(allClasses);
+    }
+    if (!parallel) {
+      Map<ClassInfo, List<PropertyRestriction>> restrictions = scanRestrictions(allClasses, view);
+      for (ClassInfo ci : allClasses) {
+        extract(ci, info, view, restrictions);
+      }
+      return info;
     }
+
+    // Every class only changes its own properties, so the classes can be handled independently;
+    // the graphs are only read
+    ReadView readSafeView = view.readSafe(allClasses);
+    Map<ClassInfo, List<PropertyRestriction>> restrictions = scanRestrictions(allClasses,
+        readSafeView);
+    logger.debug("Extracting properties of {} classes with parallelism {}", allClasses.size(),
+        Parallel.threads(properties.getParallelism()));
+    Parallel.forEach(allClasses, properties.getParallelism(),
+        ci -> extract(ci, info, readSafeView, restrictions));
     return info;
   }
 
-  private void determineInverseProperties(ClassInfo classInfo, OntologyInfo ontologyInfo) {
+  private void extract(ClassInfo classInfo, OntologyInfo info, ReadView view,
+      Map<ClassInfo, List<PropertyRestriction>> restrictions) {
+    if (restrictions != null) {
+      this.addRestrictedProperties(classInfo, info, view, restrictions.get(classInfo));
+    } else {
+      this.extractProperties(classInfo, info, view);
+    }
+    this.determineIdentifiers(classInfo, view);
+    this.determineInverseProperties(classInfo, view);
+  }
+
+  // In bulk mode, scan every model holding classes once for the restrictions of all its classes
+  private Map<ClassInfo, List<PropertyRestriction>> scanRestrictions(List<ClassInfo> classes,
+      ReadView view) {
+    if (!properties.isBulk()) {
+      return null;
+    }
+    Map<Model, Map<Resource, ClassInfo>> classesByModel = new IdentityHashMap<>();
+    for (ClassInfo classInfo : classes) {
+      Resource classResource = view.bind(classInfo.getResource());
+      classesByModel.computeIfAbsent(classResource.getModel(), m -> new LinkedHashMap<>())
+          .put(classResource, classInfo);
+    }
+    Map<ClassInfo, List<PropertyRestriction>> restrictions = new IdentityHashMap<>();
+    classesByModel.forEach((model, classResources) -> RestrictionScanner
+        .scan(model, classResources.keySet())
+        .forEach((classResource, list) -> restrictions.put(classResources.get(classResource),
+            list)));
+    return restrictions;
+  }
+
+  private void determineInverseProperties(ClassInfo classInfo, ReadView view) {
     // Loop through the properties and find the URI of the inverse property (if any) and set it in the property info
     // Use the inferred model to find the inverse properties based on the owl:inverseOf property
-    Model inferredModel = ontologyInfo.getInferredModel();
+    Model inferredModel = view.inferredModel();
     classInfo.getProperties().forEach(propertyInfo -> {
       Resource propertyResource = propertyInfo.getResource();
       if (propertyResource != null) {
@@ -61,7 +129,7 @@ public class OntologyPropertyExtractAdapter extends AbstractAdapter<OntologyInfo
     });
   }
 
-  private void determineIdentifiers(ClassInfo classInfo) {
+  private void determineIdentifiers(ClassInfo classInfo, ReadView view) {
     UriTemplate uriTemplate = classInfo.getUriTemplate();
     if (uriTemplate != null) {
       // Extract identifiers from the URI template variable mappings
@@ -73,45 +141,195 @@ public class OntologyPropertyExtractAdapter extends AbstractAdapter<OntologyInfo
           logger.debug("Marked property {} as identifier for class {}", propertyUri, classInfo.getUri());
         } else {
           // Add the property as an identifier if it is not already present in the class properties
-          Resource propertyResource = classInfo.getResource().getModel().createResource(propertyUri);
+          Resource propertyResource = view.bind(classInfo.getResource()).getModel()
+              .createResource(propertyUri);
           PropertyInfo newPropertyInfo = new PropertyInfo(classInfo.getScope(), propertyResource);
           newPropertyInfo.setIdentifier(true);
           newPropertyInfo.setCardinalityTo(new Cardinality());
           newPropertyInfo.getCardinalityTo().setMax(1);
           newPropertyInfo.getCardinalityTo().setMin(1);
-          classInfo.getProperties().add(newPropertyInfo);
+          classInfo.addProperty(newPropertyInfo);
           logger.debug("Added property {} as identifier for class {}", propertyUri, classInfo.getUri());
         }
       });
     }
   }
 
-  private void extractProperties(ClassInfo classInfo) {
-    Resource classResource = classInfo.getResource();
+  private void extractProperties(ClassInfo classInfo, OntologyInfo info, ReadView view) {
     // Extract properties defined in the owl restrictions
-    classResource.listProperties(RDFS.subClassOf).forEachRemaining(statement -> {
-      Resource statementResource = statement.getObject().asResource();
-      if (statementResource != null && statementResource.hasProperty(RDF.type, OWL2.Restriction)) {
+    for (Resource superClass : view.superClasses(classInfo)) {
+      Resource statementResource = view.bind(superClass);
+      if (statementResource.hasProperty(RDF.type, OWL2.Restriction)) {
         statementResource.listProperties(OWL2.onProperty)
             .forEachRemaining(propertyStatement -> {
               Resource propertyResource = propertyStatement.getObject().asResource();
               if (propertyResource != null && propertyResource.getURI() != null) {
-                classInfo.getProperties()
-                    .add(
-                        new PropertyInfo(classInfo.getScope(), propertyResource, statementResource));
+                addProperty(classInfo,
+                    new PropertyInfo(classInfo.getScope(), propertyResource, statementResource),
+                    info);
               }
             });
       }
-    });
+    }
+    extractPropertyDefinitions(classInfo, view.bind(classInfo.getResource()), info);
+  }
+
+  private void addRestrictedProperties(ClassInfo classInfo, OntologyInfo info, ReadView view,
+      List<PropertyRestriction> restrictions) {
+    for (PropertyRestriction restriction : view.inGraphOrder(classInfo, restrictions)) {
+      addProperty(classInfo, toPropertyInfo(classInfo, restriction), info);
+    }
+    extractPropertyDefinitions(classInfo, view.bind(classInfo.getResource()), info);
+  }
+
+  private PropertyInfo toPropertyInfo(ClassInfo classInfo, PropertyRestriction restriction) {
+    if (restriction.propertyDefinition()) {
+      // the restriction defines the property itself, read it like a property resource
+      return new PropertyInfo(classInfo.getScope(), restriction.property(),
+          restriction.restriction());
+    }
+    PropertyInfo propertyInfo = new PropertyInfo(classInfo.getScope(), null);
+    propertyInfo.setResource(restriction.property());
+    propertyInfo.setUri(restriction.property().getURI());
+    propertyInfo.setName(restriction.property().getLocalName());
+    propertyInfo.setLabel(restriction.label());
+    propertyInfo.setComment(restriction.comment());
+    propertyInfo.getCardinalityTo().setMin(restriction.min());
+    propertyInfo.getCardinalityTo().setMax(restriction.max());
+    propertyInfo.setRange(restriction.range());
+    return propertyInfo;
+  }
+
+  private void extractPropertyDefinitions(ClassInfo classInfo, Resource classResource,
+      OntologyInfo info) {
     // Extract properties as object or data properties within the ontology
     classResource.listProperties(RDF.type).forEachRemaining(statement -> {
       Resource statementResource = statement.getSubject().asResource();
       if (statementResource != null && statementResource.getURI() != null && (
           statementResource.hasProperty(RDF.type, OWL2.ObjectProperty)
               || statementResource.hasProperty(RDF.type, OWL2.DatatypeProperty))) {
-        classInfo.getProperties()
-            .add(new PropertyInfo(classInfo.getScope(), statementResource));
+        addProperty(classInfo, new PropertyInfo(classInfo.getScope(), statementResource), info);
       }
     });
   }
+
+  private void addProperty(ClassInfo classInfo, PropertyInfo propertyInfo, OntologyInfo info) {
+    if (classInfo.addProperty(propertyInfo)) {
+      return;
+    }
+    // The same property can be restricted on the class and on one of its superclasses, keep the
+    // most specific range (e.g. allValuesFrom ssn:System on the superclass, a subclass of it here)
+    PropertyInfo existing = classInfo.getPropertyByUri(propertyInfo.getUri());
+    if (isNarrower(propertyInfo, existing, info)) {
+      classInfo.replaceProperty(propertyInfo);
+    }
+  }
+
+  private boolean isNarrower(PropertyInfo propertyInfo, PropertyInfo other, OntologyInfo info) {
+    if (propertyInfo.getRange().isEmpty() || other.getRange() == null || other.getRange()
+        .isEmpty()) {
+      return false;
+    }
+    ClassInfo rangeClass = info.getClassByUri(propertyInfo.getRange().getFirst());
+    return rangeClass != null && rangeClass.isSubClassOf(other.getRange().getFirst());
+  }
+
+  // The models to read from: the class resources and the inferred model, or read-safe snapshots;
+  // and the superclasses of the classes in the order of the graph they are bound to, where that
+  // graph is not read itself
+  private record ReadView(Model inferredModel, Map<Model, Model> snapshots,
+                          Map<ClassInfo, List<Resource>> superClasses) {
+
+    ReadView(Model inferredModel) {
+      this(inferredModel, Map.of(), Map.of());
+    }
+
+    ReadView readSafe(List<ClassInfo> classes) {
+      Map<Model, Model> snapshots = new IdentityHashMap<>();
+      if (inferredModel != null) {
+        snapshots.put(inferredModel, ModelSnapshot.readSafe(inferredModel));
+      }
+      for (ClassInfo classInfo : classes) {
+        Model model = classInfo.getResource() != null ? classInfo.getResource().getModel() : null;
+        if (model != null) {
+          snapshots.computeIfAbsent(model, ModelSnapshot::readSafe);
+        }
+      }
+      Model inferred = snapshots.getOrDefault(inferredModel, inferredModel);
+      return new ReadView(inferred, snapshots, superClasses);
+    }
+
+    // Only inference models need it: a copy or a scan of an in-memory graph lists the statements
+    // of a subject in the order of a lookup on that subject
+    ReadView withGraphOrder(List<ClassInfo> classes) {
+      Map<ClassInfo, List<Resource>> superClasses = new IdentityHashMap<>();
+      for (ClassInfo classInfo : classes) {
+        Resource classResource = classInfo.getResource();
+        if (classResource != null && classResource.getModel() != null
+            && !ModelSnapshot.isReadSafe(classResource.getModel())) {
+          superClasses.put(classInfo, listSuperClasses(classResource));
+        }
+      }
+      return new ReadView(inferredModel, snapshots, superClasses);
+    }
+
+    Resource bind(Resource resource) {
+      Model snapshot = resource.getModel() != null ? snapshots.get(resource.getModel()) : null;
+      return snapshot != null ? resource.inModel(snapshot) : resource;
+    }
+
+    List<Resource> superClasses(ClassInfo classInfo) {
+      List<Resource> recorded = superClasses.get(classInfo);
+      return recorded != null ? recorded : listSuperClasses(bind(classInfo.getResource()));
+    }
+
+    // Restrictions of a scan, in the order of the superclasses of the class
+    List<PropertyRestriction> inGraphOrder(ClassInfo classInfo,
+        List<PropertyRestriction> restrictions) {
+      List<Resource> recorded = superClasses.get(classInfo);
+      if (recorded == null) {
+        return restrictions;
+      }
+      Map<Resource, Integer> positions = new HashMap<>();
+      for (Resource superClass : recorded) {
+        positions.putIfAbsent(superClass, positions.size());
+      }
+      return restrictions.stream()
+          .sorted(Comparator.comparingInt(r -> positions.getOrDefault(r.restriction(),
+              Integer.MAX_VALUE)))
+          .toList();
+    }
+
+    private static List<Resource> listSuperClasses(Resource classResource) {
+      return classResource.listProperties(RDFS.subClassOf)
+          .mapWith(statement -> statement.getObject().asResource())
+          .toList();
+    }
+  }
+
+  /**
+   * Properties for the property extraction.
+   *
+   * <pre>
+   * adapters:
+   *   ontology-property-extract:
+   *     parallel: true
+   *     parallelism: 0
+   *     bulk: false
+   * </pre>
+   */
+  @Getter
+  @Setter
+  @ConfigurationProperties(prefix = "adapters.ontology-property-extract")
+  public static class PropertyExtractProperties {
+
+    // extract the properties of the classes concurrently
+    private boolean parallel = false;
+
+    // number of threads when extracting in parallel, 0 = number of available processors
+    private int parallelism = 0;
+
+    // read the restrictions of all classes in a single scan of the graph
+    private boolean bulk = false;
+  }
 }
@@ -1,27 +1,49 @@
 package be.vlaanderen.omgeving.oddtoolkit.adapter;
 
-import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
 import be.vlaanderen.omgeving.oddtoolkit.config.OntologyReasonerProperties;
 import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import be.vlaanderen.omgeving.oddtoolkit.model.ReasonerMetrics;
+import be.vlaanderen.omgeving.oddtoolkit.util.DiskCache;
+import be.vlaanderen.omgeving.oddtoolkit.util.InMemoryModelStore;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelDigest;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelStore;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelSnapshot;
+import be.vlaanderen.omgeving.oddtoolkit.util.RdfCacheFile;
+import be.vlaanderen.omgeving.oddtoolkit.util.TBoxExtractor;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.WrappedGraph;
 import org.apache.jena.rdf.model.InfModel;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.reasoner.Reasoner;
+import org.apache.jena.riot.Lang;
 import org.apache.jena.reasoner.ReasonerRegistry;
 import org.apache.jena.reasoner.rulesys.GenericRuleReasoner;
 import org.apache.jena.reasoner.rulesys.Rule;
+import org.apache.jena.util.iterator.ExtendedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.util.HexFormat;
 
 @AdapterDependency({
     OntologyExtractExternalAdapter.class
@@ -31,31 +53,40 @@ import java.security.MessageDigest;
 public class OntologyReasonerAdapter extends AbstractAdapter<OntologyInfo> {
 
   private static final Logger logger = LoggerFactory.getLogger(OntologyReasonerAdapter.class);
-  private final OntologyConfiguration ontologyConfiguration;
   private Reasoner reasoner;
+  private String reasonerName;
   private final OntologyReasonerProperties reasonerProperties;
-  private final Path inferredCacheDir;
+  private final DiskCache inferredCache;
+  private final Lang inferredCacheLang;
+  // persistent stores keep the inferred closures between runs
+  private final ModelStore modelStore;
 
+  public OntologyReasonerAdapter(OntologyReasonerProperties reasonerProperties) {
+    this(reasonerProperties, new InMemoryModelStore());
+  }
+
+  @Autowired
   public OntologyReasonerAdapter(OntologyReasonerProperties reasonerProperties,
-      OntologyConfiguration ontologyConfiguration) {
+      ModelStore modelStore) {
     super(OntologyInfo.class, false);
     this.reasonerProperties = reasonerProperties;
+    this.modelStore = modelStore;
     initialize();
-    // prepare inferred cache dir if enabled
-    java.nio.file.Path dir = null;
+    // prepare inferred cache if enabled
+    DiskCache cache = null;
     var useCache = reasonerProperties.isInferredCacheEnabled();
     var cacheDirStr = reasonerProperties.getInferredCacheDir();
     if (useCache && cacheDirStr != null && !cacheDirStr.isBlank()) {
       try {
-        dir = java.nio.file.Paths.get(cacheDirStr);
-        java.nio.file.Files.createDirectories(dir);
+        cache = new DiskCache(Paths.get(cacheDirStr),
+            reasonerProperties.getInferredCacheMaxEntries(),
+            reasonerProperties.getInferredCacheMaxBytes());
       } catch (Exception e) {
         logger.warn("Unable to create inferred cache directory {}: {}", cacheDirStr, e.getMessage());
-        dir = null;
       }
     }
-    this.inferredCacheDir = dir;
-    this.ontologyConfiguration = ontologyConfiguration;
+    this.inferredCache = cache;
+    this.inferredCacheLang = RdfCacheFile.resolveLang(reasonerProperties.getInferredCacheFormat());
   }
 
   @Override
@@ -69,6 +100,7 @@ public class OntologyReasonerAdapter extends AbstractAdapter<OntologyInfo> {
         GenericRuleReasoner grr = new GenericRuleReasoner(rules);
         grr.setDerivationLogging(false);
         this.reasoner = grr;
+        this.reasonerName = "rules";
         logger.info("Using custom rules reasoner from {}", rulesFile);
         return;
       } catch (Exception e) {
@@ -78,6 +110,7 @@ public class OntologyReasonerAdapter extends AbstractAdapter<OntologyInfo> {
 
     // Choose configured reasoner type to improve performance where possible
     String type = reasonerProperties.getReasonerType();
+    this.reasonerName = type != null && !type.isBlank() ? type.toLowerCase() : "owl";
     if (type != null && type.equalsIgnoreCase("rdfs")) {
       this.reasoner = ReasonerRegistry.getRDFSReasoner();
       logger.info("Using RDFS reasoner (configured) for faster, lighter-weight reasoning");
@@ -108,26 +141,45 @@ public class OntologyReasonerAdapter extends AbstractAdapter<OntologyInfo> {
     }
 
     // If caching enabled, attempt to load cached inferred model to avoid long reasoning
-    InfModel inf = null;
-    boolean loadedFromCache = false;
+    Model inf = null;
+    Model cached = null;
+    String cacheKey = null;
+    long start = System.nanoTime();
     try {
       var useCache = reasonerProperties.isInferredCacheEnabled();
       var ttl = reasonerProperties.getInferredCacheTtlMs();
-      var fmt = reasonerProperties.getInferredCacheFormat();
-      if (useCache && inferredCacheDir != null) {
-        String cacheKey = computeCacheKey(ontologyConfiguration.getOntologyFilePath(), info);
-        var cacheFile = cacheFileFor(cacheKey);
-        if (cacheFile != null && java.nio.file.Files.exists(cacheFile)) {
-          long lastModified = java.nio.file.Files.getLastModifiedTime(cacheFile).toMillis();
+      if (useCache && modelStore.isPersistent()) {
+        cacheKey = computeCacheKey(info);
+        cached = modelStore.get(storeName(cacheKey));
+        long storedAt = modelStore.storedAt(storeName(cacheKey));
+        if (cached != null && ttl > 0 && (System.currentTimeMillis() - storedAt) > ttl) {
+          logger.debug("Inferred model in model store expired");
+          cached = null;
+        }
+        if (cached != null) {
+          logger.info("Loaded inferred model from model store");
+          inf = ModelFactory.createInfModel(reasoner, cached);
+          info.setReasonerMetrics(new ReasonerMetrics("store", elapsedMs(start), false));
+        }
+      }
+      if (inf == null && useCache && inferredCache != null) {
+        if (cacheKey == null) {
+          cacheKey = computeCacheKey(info);
+        }
+        var cacheFile = inferredCache.get(cacheEntryFor(cacheKey));
+        if (cacheFile != null) {
+          long lastModified = Files.getLastModifiedTime(cacheFile).toMillis();
           if (ttl <= 0 || (System.currentTimeMillis() - lastModified) <= ttl) {
-            var loaded = loadModelFromFile(cacheFile, fmt);
+            var loaded = loadModelFromFile(cacheFile);
             if (loaded != null) {
               logger.info("Loaded inferred model from cache {}", cacheFile);
-              inf = ModelFactory.createInfModel(reasoner, loaded);
-              loadedFromCache = true;
+              cached = storeInferred(cacheKey, loaded);
+              inf = ModelFactory.createInfModel(reasoner, cached);
+              info.setReasonerMetrics(new ReasonerMetrics("cache", elapsedMs(start), false));
             }
           } else {
             logger.debug("Inferred cache expired for {}", cacheFile);
+            inferredCache.remove(cacheEntryFor(cacheKey));
           }
         }
       }
@@ -135,17 +187,53 @@ public class OntologyReasonerAdapter extends AbstractAdapter<OntologyInfo> {
       logger.warn("Failed to load inferred cache: {}", e.getMessage());
     }
 
+    boolean materialized = false;
     if (inf == null) {
-      // Create the InfModel once over the union model. This avoids copying data and speeds up reasoning.
-      inf = ModelFactory.createInfModel(reasoner, union);
-      // Only materialize if configured (prepare() is expensive)
-      var materialize = reasonerProperties.isReasonerMaterialize();
-      if (materialize) {
-        logger.info("Preparing inferred model (this may take some time for large ontologies)...");
-        inf.prepare();
+      if (reasonerProperties.isReasonerTboxOnly()) {
+        // Keep instance data out of the reasoner, the extract adapters only ask schema questions
+        long extractStart = System.nanoTime();
+        union = TBoxExtractor.extract(union);
+        logger.info("Reasoning over {} TBox statements (extracted in {} ms)", union.size(),
+            elapsedMs(extractStart));
+      }
+      long timeoutMs = reasonerProperties.getReasonerTimeoutMs();
+      String strategy = reasonerName;
+      boolean timedOut = false;
+      if (timeoutMs > 0) {
+        // Time-boxed: materialize on a worker so a pathological ontology cannot hang the job
+        logger.info("Preparing inferred model (timeout {} ms)...", timeoutMs);
+        inf = prepareWithTimeout(reasoner, union, timeoutMs);
+        materialized = inf != null;
+        if (inf == null) {
+          timedOut = true;
+          strategy = reasonerProperties.getReasonerTimeoutFallback();
+          if ("fail".equalsIgnoreCase(strategy)) {
+            throw new IllegalStateException("Reasoning did not finish within " + timeoutMs + " ms");
+          }
+          if ("rdfs".equalsIgnoreCase(strategy)) {
+            logger.info("Falling back to the RDFS reasoner");
+            inf = prepareWithTimeout(ReasonerRegistry.getRDFSReasoner(), union, timeoutMs);
+          }
+          if (inf == null) {
+            strategy = "none";
+            logger.info("Falling back to no inference");
+            inf = ModelFactory.createInfModel(new GenericRuleReasoner(List.of()), union);
+          }
+        }
       } else {
-        logger.info("Skipping infModel.prepare() (reasonerMaterialize=false) — inference will be lazy");
+        // Create the InfModel once over the union model. This avoids copying data and speeds up reasoning.
+        InfModel infModel = ModelFactory.createInfModel(reasoner, union);
+        inf = infModel;
+        // Only materialize if configured (prepare() is expensive)
+        var materialize = reasonerProperties.isReasonerMaterialize();
+        if (materialize) {
+          logger.info("Preparing inferred model (this may take some time for large ontologies)...");
+          prepare(infModel);
+        } else {
+          logger.info("Skipping infModel.prepare() (reasonerMaterialize=false) — inference will be lazy");
+        }
       }
+      info.setReasonerMetrics(new ReasonerMetrics(strategy, elapsedMs(start), timedOut));
 
       // Only compute and log sizes when debug enabled to avoid expensive operations.
       if (logger.isDebugEnabled()) {
@@ -157,24 +245,37 @@ public class OntologyReasonerAdapter extends AbstractAdapter<OntologyInfo> {
         }
       }
 
-      // After reasoning, store inferred model to cache if enabled
-      var useCache = reasonerProperties.isInferredCacheEnabled();
-      var fmt = reasonerProperties.getInferredCacheFormat();
-      if (useCache && inferredCacheDir != null) {
+      // After reasoning, store inferred model to cache if enabled (not the result of a fallback)
+      if (cacheKey != null && !timedOut) {
         try {
-          String cacheKey = computeCacheKey(ontologyConfiguration.getOntologyFilePath(), info);
-          var cacheFile = cacheFileFor(cacheKey);
-          if (cacheFile != null) {
-            writeModelToFile(inf, cacheFile, fmt);
-            logger.info("Wrote inferred model cache to {}", cacheFile);
+          if (inferredCache != null) {
+            inferredCache.put(cacheEntryFor(cacheKey), RdfCacheFile.writer(inf, inferredCacheLang));
+            logger.info("Wrote inferred model cache {}", inferredCache);
           }
         } catch (Exception e) {
           logger.warn("Failed to write inferred model cache: {}", e.getMessage());
         }
       }
+      if (cacheKey != null && !timedOut && modelStore.isPersistent()) {
+        // the stored closure replaces the inferred model, the heap no longer holds the deductions
+        long storeStart = System.nanoTime();
+        cached = storeInferred(cacheKey, inf);
+        logger.info("Stored inferred model in model store in {} ms", elapsedMs(storeStart));
+      }
     }
 
-    info.setInferredModel(inf);
+    var metrics = info.getReasonerMetrics();
+    logger.info("Reasoning took {} ms using strategy '{}'{}", metrics.getDurationMs(),
+        metrics.getStrategy(), metrics.isTimedOut() ? " (reasoner timed out)" : "");
+    if (cached != null && modelStore.isPersistent()) {
+      // a stored model already contains all inferences and is read from disk
+      info.setInferredModel(cached);
+    } else if (reasonerProperties.isReasonerSnapshot() && !materialized) {
+      // a cached model already contains all inferences, no need to query it through the reasoner
+      info.setInferredModel(snapshot(cached != null ? cached : inf));
+    } else {
+      info.setInferredModel(inf);
+    }
 
     // Optionally write inferred model to TTL file
     try {
@@ -190,6 +291,70 @@ public class OntologyReasonerAdapter extends AbstractAdapter<OntologyInfo> {
     return info;
   }
 
+  /**
+   * Materialize the inferences on a worker thread, waiting at most timeoutMs. Backward rules only
+   * run when the model is queried, so the worker also copies the full closure into a snapshot:
+   * afterwards no reasoning happens outside the deadline.
+   *
+   * @return a read-only snapshot of the closure, or null if the deadline passed
+   */
+  private Model prepareWithTimeout(Reasoner reasoner, Model data, long timeoutMs) {
+    // The reasoner reads the data, and the snapshot the deductions, through graphs that start
+    // failing once cancelled, which stops rule engines that are still querying
+    var cancelled = new AtomicBoolean();
+    var inf = ModelFactory.createInfModel(reasoner,
+        ModelFactory.createModelForGraph(new CancellableGraph(data.getGraph(), cancelled)));
+    var done = new CompletableFuture<Model>();
+    Thread worker = Thread.ofVirtual().name("ontology-reasoner").start(() -> {
+      try {
+        prepare(inf);
+        done.complete(snapshot(
+            ModelFactory.createModelForGraph(new CancellableGraph(inf.getGraph(), cancelled))));
+      } catch (Throwable t) {
+        done.completeExceptionally(t);
+      }
+    });
+    try {
+      return done.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      logger.warn("Reasoning did not finish within {} ms, cancelling", timeoutMs);
+      cancelled.set(true);
+      worker.interrupt();
+      return null;
+    } catch (InterruptedException e) {
+      cancelled.set(true);
+      worker.interrupt();
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while reasoning", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException("Reasoning failed", e.getCause());
+    }
+  }
+
+  /**
+   * Copy all (base and inferred) statements into a plain in-memory graph. The copy is indexed on
+   * subject, predicate and object and is read-only, so queries no longer go through the rule engine.
+   */
+  private Model snapshot(Model inferred) {
+    long start = System.nanoTime();
+    Model snapshot = ModelSnapshot.of(inferred);
+    logger.info("Created inferred model snapshot of {} statements in {} ms", snapshot.size(),
+        elapsedMs(start));
+    return snapshot;
+  }
+
+  // Separate so the (possibly long running) materialization can be replaced in tests
+  protected void prepare(InfModel inf) {
+    inf.prepare();
+  }
+
+  private static long elapsedMs(long startNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+
   private void writeInferredModel(Model model, String outputPath) throws Exception {
     logger.info("Writing inferred model to {}", outputPath);
     Path output = Paths.get(outputPath);
@@ -211,55 +376,70 @@ public class OntologyReasonerAdapter extends AbstractAdapter<OntologyInfo> {
   }
 
   // --- inferred cache helpers ---
-  private String computeCacheKey(String ontologyFilePath, OntologyInfo info) throws Exception {
+  // Content-addressed key: changes whenever the input triples, the reasoner or its rules change
+  private String computeCacheKey(OntologyInfo info) throws Exception {
     StringBuilder sb = new StringBuilder();
-    if (ontologyFilePath != null) sb.append(ontologyFilePath).append('|');
-    // include external references to make cache key sensitive to imports
+    sb.append("reasoner=").append(reasonerProperties.getReasonerType()).append('|');
+    sb.append("rules=").append(rulesDigest()).append('|');
+    sb.append("tbox-only=").append(reasonerProperties.isReasonerTboxOnly()).append('|');
+    if (info.getModel() != null) {
+      sb.append("base=").append(ModelDigest.digest(info.getModel())).append('|');
+    }
     if (info.getExternalOntologies() != null && !info.getExternalOntologies().isEmpty()) {
       var refs = new java.util.ArrayList<>(info.getExternalOntologies().keySet());
       refs.sort(String::compareTo);
       for (String r : refs) {
-        sb.append(r).append('|');
+        var external = info.getExternalOntologies().get(r).getModel();
+        sb.append(r).append('=').append(external == null ? "" : ModelDigest.digest(external)).append('|');
       }
     }
     return sha256Hex(sb.toString());
   }
 
-  private Path cacheFileFor(String cacheKey) {
-    if (inferredCacheDir == null) return null;
-    String ext = ".ttl";
-    return inferredCacheDir.resolve(cacheKey + ext);
+  private String rulesDigest() throws Exception {
+    String rulesFile = reasonerProperties.getRulesFile();
+    if (rulesFile == null || rulesFile.isBlank() || !Files.exists(Paths.get(rulesFile))) {
+      return "";
+    }
+    var md = MessageDigest.getInstance("SHA-256");
+    try (var in = new DigestInputStream(Files.newInputStream(Paths.get(rulesFile)), md)) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    return HexFormat.of().formatHex(md.digest());
+  }
+
+  private static String storeName(String cacheKey) {
+    return "inferred:" + cacheKey;
   }
 
-  private Model loadModelFromFile(Path file, String format) {
-    try (InputStream in = Files.newInputStream(file)) {
-      var model = ModelFactory.createDefaultModel();
-      try {
-        model.read(in, null, format);
-        if (!model.isEmpty()) return model;
-      } catch (Exception ex) {
-        logger.debug("Failed to parse cached inferred model {} with format {}: {}", file, format, ex.getMessage());
+  // Store the inferred model, dropping the ones of earlier inputs from a persistent store
+  private Model storeInferred(String cacheKey, Model model) {
+    Model stored = modelStore.put(storeName(cacheKey), model);
+    for (String name : modelStore.names(storeName(""))) {
+      if (!name.equals(storeName(cacheKey))) {
+        modelStore.remove(name);
+        logger.debug("Removed replaced inferred model {} from model store", name);
       }
-    } catch (Exception e) {
-      logger.warn("Failed to read cached inferred model file {}: {}", file, e.getMessage());
     }
-    return null;
+    return stored;
+  }
+
+  private String cacheEntryFor(String cacheKey) {
+    return cacheKey + RdfCacheFile.extension(inferredCacheLang);
   }
 
-  private void writeModelToFile(Model model, Path file, String format) throws Exception {
-    var tmp = file.resolveSibling(file.getFileName().toString() + ".tmp");
+  private Model loadModelFromFile(Path file) {
     try {
-      try (var out = Files.newOutputStream(tmp)) {
-        model.write(out, format);
+      var model = RdfCacheFile.read(file, inferredCacheLang);
+      if (model == null) {
+        logger.debug("Ignoring cached inferred model {}: not written as {}", file, inferredCacheLang.getLabel());
+      } else if (!model.isEmpty()) {
+        return model;
       }
-      try {
-        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
-      } catch (AtomicMoveNotSupportedException amnse) {
-        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
-      }
-    } finally {
-      try { if (Files.exists(tmp)) Files.deleteIfExists(tmp); } catch (Exception ignore) {}
+    } catch (Exception e) {
+      logger.warn("Failed to read cached inferred model file {}: {}", file, e.getMessage());
     }
+    return null;
   }
 
   private static String sha256Hex(String input) throws Exception {
@@ -269,4 +449,50 @@ public class OntologyReasonerAdapter extends AbstractAdapter<OntologyInfo> {
     for (byte b : digest) sb.append(String.format("%02x", b));
     return sb.toString();
   }
+
+  // Graph view that fails all lookups, and iterations over their results, once cancelled
+  private static class CancellableGraph extends WrappedGraph {
+
+    private final AtomicBoolean cancelled;
+
+    CancellableGraph(Graph base, AtomicBoolean cancelled) {
+      super(base);
+      this.cancelled = cancelled;
+    }
+
+    @Override
+    public ExtendedIterator<Triple> find(Triple triple) {
+      checkCancelled();
+      return super.find(triple).mapWith(this::checkCancelled);
+    }
+
+    @Override
+    public ExtendedIterator<Triple> find(Node s, Node p, Node o) {
+      checkCancelled();
+      return super.find(s, p, o).mapWith(this::checkCancelled);
+    }
+
+    @Override
+    public boolean contains(Triple triple) {
+      checkCancelled();
+      return super.contains(triple);
+    }
+
+    @Override
+    public boolean contains(Node s, Node p, Node o) {
+      checkCancelled();
+      return super.contains(s, p, o);
+    }
+
+    private Triple checkCancelled(Triple triple) {
+      checkCancelled();
+      return triple;
+    }
+
+    private void checkCancelled() {
+      if (cancelled.get()) {
+        throw new CancellationException("Reasoning cancelled");
+      }
+    }
+  }
 }
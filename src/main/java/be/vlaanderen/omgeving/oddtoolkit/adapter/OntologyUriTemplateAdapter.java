@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 
 @AdapterDependency({
     OntologyClassExtractAdapter.class,
+    ConceptClassExtractAdapter.class
 })
 @ConditionalOnProperty(prefix = "adapters", name = "ontology-uri-template.enabled", havingValue = "true", matchIfMissing = true)
 @Component("ontology-uri-template")
@@ -0,0 +1,23 @@
+package be.vlaanderen.omgeving.oddtoolkit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Typed properties for the adapter pipeline.
+ * Binds to: adapters.pipeline
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "adapters.pipeline")
+public class AdapterPipelineProperties {
+  // run adapters without a dependency between them concurrently
+  private boolean parallel = false;
+
+  // executor used when running in parallel: 'virtual' (virtual thread per adapter) or 'fixed'
+  private String executor = "virtual";
+
+  // number of threads for the 'fixed' executor, 0 = number of available processors
+  private int threads = 0;
+}
@@ -1,6 +1,7 @@
 package be.vlaanderen.omgeving.oddtoolkit.config;
 
 import be.vlaanderen.omgeving.oddtoolkit.adapter.AbstractAdapter;
+import be.vlaanderen.omgeving.oddtoolkit.adapter.AdapterGraph;
 import be.vlaanderen.omgeving.oddtoolkit.generator.ClassDiagramGenerator;
 import be.vlaanderen.omgeving.oddtoolkit.generator.ClassGenerator;
 import be.vlaanderen.omgeving.oddtoolkit.generator.ERDiagramGenerator;
@@ -166,8 +167,7 @@ public class GeneratorConfiguration {
     if (requestedAdapterNames == null || requestedAdapterNames.isEmpty()) {
       // no specific selection -> use all available adapters
       // Sort by dependencies
-      available.sort(new be.vlaanderen.omgeving.oddtoolkit.adapter.AdapterDependencyComparator());
-      return available;
+      return AdapterGraph.of(available).getOrder();
     }
     // Map bean names to instances
     Map<String, AbstractAdapter<?>> beanNameToAdapter = adapterBeans.entrySet().stream()
@@ -182,7 +182,6 @@ public class GeneratorConfiguration {
       }
     }
     // Sort by dependencies
-    selected.sort(new be.vlaanderen.omgeving.oddtoolkit.adapter.AdapterDependencyComparator());
-    return selected;
+    return AdapterGraph.of(selected).getOrder();
   }
 }
@@ -0,0 +1,17 @@
+package be.vlaanderen.omgeving.oddtoolkit.config;
+
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the model store shared by the load, external and reasoner adapters.
+ */
+@Configuration
+public class ModelStoreConfiguration {
+
+  @Bean(destroyMethod = "close")
+  public ModelStore modelStore(ModelStoreProperties properties) {
+    return ModelStore.of(properties);
+  }
+}
@@ -0,0 +1,22 @@
+package be.vlaanderen.omgeving.oddtoolkit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Typed properties for the store holding the loaded, external and inferred models.
+ * Binds to: model-store
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "model-store")
+public class ModelStoreProperties {
+
+  // 'memory' (in-memory graphs, nothing is kept between runs) or 'tdb2' (on-disk dataset, external
+  // ontologies and inferred closures are reused between runs)
+  private String type = "memory";
+
+  // directory of the TDB2 dataset
+  private String directory = "target/model-store";
+}
@@ -11,11 +11,17 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @Setter
 @ConfigurationProperties("ontology")
 public class OntologyConfiguration {
-  // Path to the main ontology file
+  // Path to the main ontology file; a file, a directory (all RDF files in it) or a glob such as
+  // "ontology/**/*.ttl"
   private String ontologyFilePath;
 
+  // More ontology files, directories or globs, loaded together with ontologyFilePath
+  private List<String> ontologyFilePaths = new ArrayList<>();
+
   private String conceptsFilePath;
 
+  private List<String> conceptsFilePaths = new ArrayList<>();
+
   // List of class URIs that should be treated as enumerations (configuration key: ontology.enum-classes)
   private List<String> enumClasses = new ArrayList<>();
 
@@ -29,6 +35,31 @@ public class OntologyConfiguration {
 
   private MetadataClasses metadataClasses = new MetadataClasses();
 
+  /**
+   * The configured ontology sources: ontologyFilePath followed by ontologyFilePaths.
+   */
+  public List<String> getOntologySources() {
+    return sources(ontologyFilePath, ontologyFilePaths);
+  }
+
+  /**
+   * The configured concept scheme sources: conceptsFilePath followed by conceptsFilePaths.
+   */
+  public List<String> getConceptsSources() {
+    return sources(conceptsFilePath, conceptsFilePaths);
+  }
+
+  private static List<String> sources(String path, List<String> paths) {
+    List<String> sources = new ArrayList<>();
+    if (path != null && !path.isBlank()) {
+      sources.add(path);
+    }
+    if (paths != null) {
+      paths.stream().filter(p -> p != null && !p.isBlank()).forEach(sources::add);
+    }
+    return sources;
+  }
+
   @Getter
   @Setter
   public static class MetadataClasses {
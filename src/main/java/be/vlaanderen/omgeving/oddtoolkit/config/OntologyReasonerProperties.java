@@ -24,13 +24,30 @@ public class OntologyReasonerProperties {
   // whether to materialize (call InfModel.prepare())
   private boolean reasonerMaterialize = false;
 
-  // timeout for reasoning (ms), 0 = disabled
+  // only feed the schema (classes, properties, restrictions) to the reasoner, leaving out instance
+  // data; the inferred model then contains no individuals
+  private boolean reasonerTboxOnly = false;
+
+  // copy the inferred statements into a read-only, indexed in-memory graph so downstream queries
+  // do not go through the rule engine (implies materialization of all inferences)
+  private boolean reasonerSnapshot = false;
+
+  // timeout for reasoning (ms), 0 = disabled. When set, the model is always materialized
   private long reasonerTimeoutMs = 0L;
 
-  // inferred-model caching
+  // what to do when the timeout passes: 'rdfs' (retry with the RDFS reasoner), 'none' (no
+  // inference) or 'fail'
+  private String reasonerTimeoutFallback = "rdfs";
+
+  // inferred-model caching, the cache key covers the input models, reasoner type and rules so
+  // entries never go stale; the ttl (ms) is only a safety net, 0 = keep indefinitely
   private boolean inferredCacheEnabled = true;
-  private long inferredCacheTtlMs = 3600000L;
+  private long inferredCacheTtlMs = 0L;
   private String inferredCacheDir = "target/cache/inferred";
+  // limits of the inferred cache, least recently used entries are evicted first, 0 = no limit
+  private int inferredCacheMaxEntries = 20;
+  private long inferredCacheMaxBytes = 1024L * 1024 * 1024;
+  // Jena language name, e.g. TURTLE, N-TRIPLES or the (faster) binary RDF-THRIFT and RDF-PROTO
   private String inferredCacheFormat = "TURTLE";
 
   // optional output of inferred model
@@ -0,0 +1,43 @@
+package be.vlaanderen.omgeving.oddtoolkit.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Typed properties for loading an RDF source with the RdfLoader.
+ * Bound by the load adapters to: adapters.ontology-load and adapters.concept-scheme-load
+ */
+@Getter
+@Setter
+public class RdfLoadProperties {
+
+  // Jena language name of the source, empty = detect the format from the content
+  private String format = "";
+
+  // parse N-Triples and N-Quads in chunks on several threads
+  private boolean parallel = true;
+
+  // number of threads when parsing chunks or several source files in parallel, 0 = number of
+  // available processors
+  private int parallelism = 0;
+
+  // size of the chunks the N-Triples and N-Quads sources are split into when parsing in parallel
+  private int chunkSizeBytes = 8 * 1024 * 1024;
+
+  // only keep the triples with one of these predicates (URIs), empty = keep all predicates
+  private List<String> keepPredicates = new ArrayList<>();
+
+  // drop the triples with one of these predicates (URIs)
+  private List<String> dropPredicates = new ArrayList<>();
+
+  // snapshots of the parsed source files, reused while the content of a file does not change
+  private boolean cacheEnabled = true;
+  private String cacheDir = "target/cache/parsed";
+  // Jena language name, the binary RDF-THRIFT and RDF-PROTO load much faster than text formats
+  private String cacheFormat = "RDF-THRIFT";
+  // bounds of the cache directory, the least recently used snapshots are evicted; 0 = no limit
+  private int cacheMaxEntries = 200;
+  private long cacheMaxBytes = 1024L * 1024 * 1024;
+}
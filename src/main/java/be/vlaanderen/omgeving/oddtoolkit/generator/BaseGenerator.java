@@ -1,6 +1,7 @@
 package be.vlaanderen.omgeving.oddtoolkit.generator;
 
 import be.vlaanderen.omgeving.oddtoolkit.adapter.AbstractAdapter;
+import be.vlaanderen.omgeving.oddtoolkit.adapter.AdapterPipeline;
 import be.vlaanderen.omgeving.oddtoolkit.model.ClassConceptInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.ClassInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.ConceptSchemeInfo;
@@ -9,8 +10,7 @@ import be.vlaanderen.omgeving.oddtoolkit.model.PropertyConceptInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.Scope;
 import java.util.List;
 import java.util.Map;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * Abstract base class for all generators.
@@ -22,11 +22,12 @@ import org.slf4j.LoggerFactory;
  * 3. Optionally override {@link #validate()} for custom validation
  */
 public abstract class BaseGenerator {
-  private static final Logger logger = LoggerFactory.getLogger(BaseGenerator.class);
   protected final OntologyInfo ontologyInfo;
   protected final ConceptSchemeInfo conceptSchemeInfo;
   protected final List<AbstractAdapter<?>> adapters;
   protected final Map<String, Object> config;
+  // Shared pipeline so adapters run once per info across all generators of a run
+  protected AdapterPipeline adapterPipeline = new AdapterPipeline();
 
   public BaseGenerator(
       OntologyInfo ontologyInfo,
@@ -39,6 +40,19 @@ public abstract class BaseGenerator {
     this.config = config != null ? config : Map.of();
   }
 
+  /**
+   * Set the adapter pipeline used to prepare the ontology and concept scheme. Generators that share
+   * a pipeline (and info models) only run each adapter once.
+   *
+   * @param adapterPipeline the shared adapter pipeline
+   */
+  @Autowired(required = false)
+  public void setAdapterPipeline(AdapterPipeline adapterPipeline) {
+    if (adapterPipeline != null) {
+      this.adapterPipeline = adapterPipeline;
+    }
+  }
+
   /**
    * Get the unique name of this generator.
    * Must be unique across all registered generators.
@@ -71,18 +85,10 @@ public abstract class BaseGenerator {
   /**
    * Run the generator. This is the main execution method.
    * Subclasses should override this to implement their generation logic.
+   * Adapters that already prepared the shared models (e.g. for another generator) are skipped.
    */
-  @SuppressWarnings("unchecked")
   public void run() {
-    for (AbstractAdapter<?> adapter : adapters) {
-      logger.info("Running adapter: {}", adapter.getClass().getSimpleName());
-      if (adapter.canAdapt(ontologyInfo)) {
-        ((AbstractAdapter<OntologyInfo>) adapter).adapt(ontologyInfo);
-      }
-      if (adapter.canAdapt(conceptSchemeInfo)) {
-        ((AbstractAdapter<ConceptSchemeInfo>) adapter).adapt(conceptSchemeInfo);
-      }
-    }
+    adapterPipeline.run(adapters, ontologyInfo, conceptSchemeInfo);
   }
 
   /**
@@ -152,10 +158,7 @@ public abstract class BaseGenerator {
    * @return a list of ClassInfo objects representing the classes
    */
   public List<ClassInfo> getOntologyClasses() {
-    // Get all classes defined in the ontology and filter them based on the provided scope
-    return ontologyInfo.getClasses().stream()
-        .filter(c -> c.getScope() == Scope.ONTOLOGY)
-        .toList();
+    return ontologyInfo.getClasses(Scope.ONTOLOGY);
   }
 
   /**
@@ -183,10 +186,7 @@ public abstract class BaseGenerator {
    * @return the PropertyConceptInfo object representing the property concept, or null if not found
    */
   public PropertyConceptInfo getPropertyConceptForProperty(String propertyUri) {
-    return conceptSchemeInfo.getPropertyConcepts().stream()
-        .filter(pc -> pc.getEquivalents().contains(propertyUri))
-        .findFirst()
-        .orElse(null);
+    return conceptSchemeInfo.getPropertyConceptByEquivalent(propertyUri);
   }
 
   /**
@@ -196,10 +196,7 @@ public abstract class BaseGenerator {
    * @return the ClassConceptInfo object representing the class concept, or null if not found
    */
   public ClassConceptInfo getClassConceptForClass(String classUri) {
-    return conceptSchemeInfo.getClassConcepts().stream()
-        .filter(cc -> cc.getEquivalents().contains(classUri))
-        .findFirst()
-        .orElse(null);
+    return conceptSchemeInfo.getClassConceptByEquivalent(classUri);
   }
 
   /**
@@ -9,11 +9,19 @@ import be.vlaanderen.omgeving.oddtoolkit.model.ConceptSchemeInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.PropertyInfo;
 import be.vlaanderen.omgeving.oddtoolkit.model.Scope;
+import be.vlaanderen.omgeving.oddtoolkit.model.TermDictionary;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.jena.atlas.lib.Pair;
@@ -29,6 +37,19 @@ public class ClassGenerator extends BaseGenerator {
   protected List<Interface> interfaces = new ArrayList<>();
   protected List<Enum> enums = new ArrayList<>();
 
+  // URI indexes over the lists above, rebuilt when a filter pass reassigns (or grows) a list
+  @Getter(AccessLevel.NONE)
+  private final UriIndex<Clazz> classIndex = new UriIndex<>();
+  @Getter(AccessLevel.NONE)
+  private final UriIndex<Interface> interfaceIndex = new UriIndex<>();
+  @Getter(AccessLevel.NONE)
+  private final UriIndex<Enum> enumIndex = new UriIndex<>();
+  @Getter(AccessLevel.NONE)
+  private Set<String> ontologyClassUris;
+  // attributes of the concrete classes by property URI, used to find inverse properties
+  @Getter(AccessLevel.NONE)
+  private AttributeIndex inverseIndex;
+
   public ClassGenerator(OntologyInfo ontologyInfo,
       ConceptSchemeInfo conceptSchemeInfo, List<AbstractAdapter<?>> adapters) {
     super(ontologyInfo, conceptSchemeInfo, adapters, Map.of());
@@ -74,6 +95,7 @@ public class ClassGenerator extends BaseGenerator {
   @Override
   public void run() {
     super.run();
+    ontologyClassUris = null;
     extractClasses();
     extractInterfaces();
     extractEnums();
@@ -142,8 +164,7 @@ public class ClassGenerator extends BaseGenerator {
             datatypeAttribute.setDataType(new DataType("String", XSD.xstring.getURI()));
             attributes.add(datatypeAttribute);
           } else if (p.getRange() != null && p.getRange().stream()
-              .noneMatch(uri -> getOntologyClasses().stream()
-                  .anyMatch(otherClass -> otherClass.getUri().equals(uri)))) {
+              .noneMatch(this::isOntologyClass)) {
             // Determine a data type based on XSD type or default to VARCHAR
             String dataType = p.getRange() != null && !p.getRange().isEmpty() ?
                 p.getRange().getFirst() : XSD.xstring.getURI();
@@ -192,22 +213,15 @@ public class ClassGenerator extends BaseGenerator {
 
   @SuppressWarnings("unchecked")
   private <T extends Clazz> T findNeareast(ClassInfo classInfo) {
-    for (Clazz clazz : classes) {
-      if (clazz.getUri().equals(classInfo.getUri())) {
-        return (T) clazz;
-      }
-    }
-    for (Interface interfaceInfo : interfaces) {
-      if (interfaceInfo.getUri().equals(classInfo.getUri())) {
-        return (T) interfaceInfo;
-      }
-    }
-    for (Enum enumInfo : enums) {
-      if (enumInfo.getUri().equals(classInfo.getUri())) {
-        return (T) enumInfo;
-      }
+    return (T) getClass(classInfo);
+  }
+
+  private boolean isOntologyClass(String uri) {
+    if (ontologyClassUris == null) {
+      ontologyClassUris = new HashSet<>();
+      getOntologyClasses().forEach(c -> ontologyClassUris.add(c.getUri()));
     }
-    return null;
+    return ontologyClassUris.contains(uri);
   }
 
   protected void extractClasses() {
@@ -239,10 +253,17 @@ public class ClassGenerator extends BaseGenerator {
         .toList());
     // Update the classes to set the interfaces they implement based on the super classes that are interfaces
     this.classes.forEach(clazz -> {
+      // the term ids of the super classes, so every interface is a bitset test
+      BitSet superClassIds = new BitSet();
+      if (clazz.getClassInfo().getSuperClasses() != null) {
+        clazz.getClassInfo().getSuperClasses().stream()
+            .mapToInt(AbstractInfo::getUriId)
+            .filter(id -> id != TermDictionary.NO_ID)
+            .forEach(superClassIds::set);
+      }
       List<Interface> implementedInterfaces = interfaces.stream()
-          .filter(i -> clazz.getClassInfo().getSuperClasses() != null && clazz.getClassInfo()
-              .getSuperClasses().stream()
-              .anyMatch(ci -> ci.getUri().equals(i.getUri())))
+          .filter(i -> i.getClassInfo().getUriId() != TermDictionary.NO_ID
+              && superClassIds.get(i.getClassInfo().getUriId()))
           .toList();
       clazz.setInterfaces(implementedInterfaces);
     });
@@ -377,6 +398,9 @@ public class ClassGenerator extends BaseGenerator {
   protected void filterInverseProperties(Clazz clazz) {
     // Filter inverse properties and copy the cardinality
     // Then we can remove the inverse properties from the class and only keep the original properties
+    if (inverseIndex == null || !inverseIndex.isFor(classes)) {
+      inverseIndex = new AttributeIndex(classes);
+    }
     clazz.getAttributes()
         .stream()
         .filter(a -> a.getPropertyInfo() != null
@@ -384,77 +408,78 @@ public class ClassGenerator extends BaseGenerator {
             && propertyInfo.getInverseOf() != null)
         .forEach(attribute -> {
           PropertyInfo propertyInfo = (PropertyInfo) attribute.getPropertyInfo();
-          classes
-              .stream()
-              .flatMap(c -> c.getAttributes().stream())
-              .filter(p -> p.getUri().equals(propertyInfo.getInverseOf()))
-              .findFirst()
-              .ifPresent(inverseAttribute -> {
-                PropertyInfo inverseProperty = (PropertyInfo) inverseAttribute.getPropertyInfo();
-                propertyInfo.setCardinalityFrom(inverseProperty.getCardinalityTo());
-                attribute.setCardinality(getCardinality(propertyInfo));
-                inverseProperty.setCardinalityFrom(propertyInfo.getCardinalityTo());
-                inverseAttribute.setCardinality(getCardinality(inverseProperty));
-
-                // Check that one of the properties has a comment, if not we can keep either one of them
-                if ((propertyInfo.getComment() == null || propertyInfo.getComment().isEmpty()) && (
-                    inverseProperty.getComment() == null || inverseProperty.getComment()
-                        .isEmpty())) {
-                  // Keep the property with the lower URI (arbitrary choice to keep one of them)
-                  if (propertyInfo.getUri().compareTo(inverseProperty.getUri()) < 0) {
-                    propertyInfo.setComment("Inverse property of " + inverseProperty.getUri());
-                  } else {
-                    inverseProperty.setComment("Inverse property of " + propertyInfo.getUri());
-                  }
-                }
-              });
+          Attribute inverseAttribute = inverseIndex.first(propertyInfo.getInverseOf());
+          if (inverseAttribute != null) {
+            PropertyInfo inverseProperty = (PropertyInfo) inverseAttribute.getPropertyInfo();
+            propertyInfo.setCardinalityFrom(inverseProperty.getCardinalityTo());
+            attribute.setCardinality(getCardinality(propertyInfo));
+            inverseProperty.setCardinalityFrom(propertyInfo.getCardinalityTo());
+            inverseAttribute.setCardinality(getCardinality(inverseProperty));
+
+            // Check that one of the properties has a comment, if not we can keep either one of them
+            if ((propertyInfo.getComment() == null || propertyInfo.getComment().isEmpty()) && (
+                inverseProperty.getComment() == null || inverseProperty.getComment()
+                    .isEmpty())) {
+              // Keep the property with the lower URI (arbitrary choice to keep one of them)
+              if (propertyInfo.getUri().compareTo(inverseProperty.getUri()) < 0) {
+                propertyInfo.setComment("Inverse property of " + inverseProperty.getUri());
+              } else {
+                inverseProperty.setComment("Inverse property of " + propertyInfo.getUri());
+              }
+            }
+          }
         });
-    // If the class is an interface then remove all inverse properties
+    List<Attribute> remainingProperties;
     if (isInterface(clazz.getClassInfo())) {
-      clazz.setAttributes(clazz.getAttributes().stream()
+      // If the class is an interface then remove all inverse properties
+      remainingProperties = clazz.getAttributes().stream()
           .filter(a -> a.getPropertyInfo() == null || (
               a.getPropertyInfo() instanceof PropertyInfo propertyInfo
                   && propertyInfo.getInverseOf() == null))
-          .toList());
-      return;
+          .toList();
+    } else {
+      // Remove inverse properties if they don't have a comment or many to one
+      remainingProperties = clazz.getAttributes()
+          .stream()
+          .filter(
+              p -> {
+                PropertyInfo propertyInfo = (PropertyInfo) p.getPropertyInfo();
+                return (propertyInfo.getInverseOf() == null || (propertyInfo.getComment() != null
+                    && !propertyInfo.getComment().isEmpty()))
+                    && !p.getCardinality().equals(Cardinality.ONE_TO_MANY);
+              })
+          .toList();
     }
-    // Remove inverse properties if they don't have a comment or many to one
-    List<Attribute> remainingProperties = clazz.getAttributes()
-        .stream()
-        .filter(
-            p -> {
-              PropertyInfo propertyInfo = (PropertyInfo) p.getPropertyInfo();
-              return (propertyInfo.getInverseOf() == null || (propertyInfo.getComment() != null
-                  && !propertyInfo.getComment().isEmpty()))
-                  && !p.getCardinality().equals(Cardinality.ONE_TO_MANY);
-            })
-        .toList();
+    inverseIndex.removeAll(clazz.getAttributes(), remainingProperties);
     clazz.setAttributes(remainingProperties);
   }
 
   protected void filterInterfaces() {
     // Only keep interfaces that are directly used by concrete classes
+    Set<String> rangeUris = new HashSet<>();
+    classes.forEach(c -> c.getAttributes().forEach(p -> {
+      if (p.getRange() != null) {
+        rangeUris.add(p.getRange().getUri());
+      }
+    }));
     this.interfaces = interfaces
         .stream()
-        .filter(i -> classes.stream()
-            .flatMap(c -> c.getAttributes().stream())
-            .anyMatch(p -> p.getRange() != null && p.getRange().getUri().equals(i.getUri())))
+        .filter(i -> rangeUris.contains(i.getUri()))
         .toList();
     // Also filter interfaces that are only used as a superclass of only one concrete class
+    Map<String, List<Clazz>> implementations = getImplementingClasses();
     this.interfaces = interfaces
         .stream()
-        .filter(i -> classes.stream()
-            .filter(c -> c.getInterfaces() != null && c.getInterfaces().stream()
-                .anyMatch(ci -> ci.getUri().equals(i.getUri())))
-            .count() > 1)
+        .filter(i -> implementations.getOrDefault(i.getUri(), List.of()).size() > 1)
         .toList();
     // Filter the used filters in classes to only include the interfaces that are still kept
+    Set<String> keptInterfaces = new HashSet<>();
+    interfaces.forEach(i -> keptInterfaces.add(i.getUri()));
     this.classes = classes
         .stream()
         .peek(c -> {
           List<Interface> filteredInterfaces = c.getInterfaces().stream()
-              .filter(i -> interfaces.stream()
-                  .anyMatch(keptInterface -> keptInterface.getUri().equals(i.getUri())))
+              .filter(i -> keptInterfaces.contains(i.getUri()))
               .toList();
           c.setInterfaces(filteredInterfaces);
         })
@@ -464,21 +489,25 @@ public class ClassGenerator extends BaseGenerator {
   protected void filterInterfaceProperties() {
     // Filter the properties of the interfaces to only include properties
     // used by ALL concrete classes that implement the interface
+    Map<String, List<Clazz>> implementations = getImplementingClasses();
     this.interfaces = interfaces
         .stream()
         .map(i -> {
-          List<Clazz> implementingClasses = classes.stream()
-              .filter(c -> c.getInterfaces() != null && c.getInterfaces().stream()
-                  .anyMatch(ci -> ci.getUri().equals(i.getUri())))
-              .toList();
+          List<Clazz> implementingClasses = implementations.getOrDefault(i.getUri(), List.of());
           if (implementingClasses.isEmpty()) {
             return i;
           }
+          // Count for every property URI how many implementing classes have it
+          Map<String, Integer> usage = new HashMap<>();
+          for (Clazz c : implementingClasses) {
+            Set<String> propertyUris = new HashSet<>();
+            c.getAttributes().forEach(cp -> propertyUris.add(cp.getPropertyInfo().getUri()));
+            propertyUris.forEach(uri -> usage.merge(uri, 1, Integer::sum));
+          }
           List<Attribute> filteredProperties = i.getAttributes().stream()
-              .filter(p -> implementingClasses.stream()
-                  .allMatch(c -> c.getAttributes().stream()
-                      .anyMatch(cp -> cp.getPropertyInfo().getUri()
-                          .equals(p.getPropertyInfo().getUri()))))
+              .filter(p -> p.getPropertyInfo().getUri() != null
+                  && usage.getOrDefault(p.getPropertyInfo().getUri(), 0)
+                  == implementingClasses.size())
               .toList();
           i.setAttributes(filteredProperties);
           return i;
@@ -486,6 +515,25 @@ public class ClassGenerator extends BaseGenerator {
         .toList();
   }
 
+  /**
+   * Get the concrete classes implementing each interface, by interface URI (in class order).
+   */
+  private Map<String, List<Clazz>> getImplementingClasses() {
+    Map<String, List<Clazz>> implementations = new HashMap<>();
+    for (Clazz c : classes) {
+      if (c.getInterfaces() == null) {
+        continue;
+      }
+      Set<String> implemented = new HashSet<>();
+      for (Interface i : c.getInterfaces()) {
+        if (implemented.add(i.getUri())) {
+          implementations.computeIfAbsent(i.getUri(), k -> new ArrayList<>()).add(c);
+        }
+      }
+    }
+    return implementations;
+  }
+
   protected void filterInheritedProperties() {
     // Filter the properties of all classes that extend another class (not interface)
     // to remove properties that are already defined in the super class
@@ -500,14 +548,15 @@ public class ClassGenerator extends BaseGenerator {
           if (superClasses.isEmpty()) {
             return c;
           }
-          List<PropertyInfo> inheritedProperties = superClasses.stream()
-              .flatMap(sc -> getAllClasses().stream()
-                  .filter(other -> other.getUri().equals(sc.getUri()))
-                  .flatMap(other -> other.getProperties().stream()))
-              .toList();
+          Set<String> inheritedProperties = new HashSet<>();
+          for (ClassInfo sc : superClasses) {
+            ClassInfo other = ontologyInfo.getClassByUri(sc.getUri());
+            if (other != null) {
+              other.getProperties().forEach(ip -> inheritedProperties.add(ip.getUri()));
+            }
+          }
           List<Attribute> filteredProperties = c.getAttributes().stream()
-              .filter(p -> inheritedProperties.stream()
-                  .noneMatch(ip -> ip.getUri().equals(p.getPropertyInfo().getUri())))
+              .filter(p -> !inheritedProperties.contains(p.getPropertyInfo().getUri()))
               .toList();
           c.setAttributes(filteredProperties);
           return c;
@@ -526,20 +575,19 @@ public class ClassGenerator extends BaseGenerator {
           if (superClasses == null) {
             return c;
           }
+          // The super classes as known in the ontology
+          List<ClassInfo> knownSuperClasses = superClasses.stream()
+              .map(other -> ontologyInfo.getClassByUri(other.getUri()))
+              .filter(Objects::nonNull)
+              .toList();
           // For every super class, check if there are other super classes that are subclasses of it
           // if so, we can remove it from the list of super classes
           Clazz superClass = superClasses.stream()
-              .filter(sc -> superClasses.stream()
-                  // Get the class from (getClasses())
-                  .map(other -> getAllClasses().stream()
-                      .filter(cc -> cc.getUri().equals(other.getUri()))
-                      .findFirst()
-                      .orElse(null)).filter(Objects::nonNull)
+              // Super class should be a concrete class
+              .filter(this::isConcreteClass)
+              .filter(sc -> knownSuperClasses.stream()
                   .filter(other -> !other.equals(sc))
                   .noneMatch(other -> other.isSubClassOf(sc.getUri())))
-              // Super class should be a concrete class
-              .filter(sc -> classes.stream()
-                  .anyMatch(cc -> cc.getUri().equals(sc.getUri())))
               .map(this::getClass)
               .findFirst()
               .orElse(null);
@@ -549,7 +597,6 @@ public class ClassGenerator extends BaseGenerator {
         .toList();
   }
 
-
   protected void filterEnums() {
     // Remove enums from interfaces
     this.interfaces = interfaces
@@ -605,12 +652,7 @@ public class ClassGenerator extends BaseGenerator {
     if (classUri == null) {
       return null;
     }
-    // Loop through all classes, the nearest class is the
-    ClassInfo classInfo = getAllClasses()
-        .stream()
-        .filter(c -> c.getUri().equals(classUri))
-        .findFirst()
-        .orElse(null);
+    ClassInfo classInfo = ontologyInfo.getClassByUri(classUri);
     if (classInfo == null) {
       return null;
     }
@@ -652,19 +694,15 @@ public class ClassGenerator extends BaseGenerator {
   }
 
   public boolean isConcreteClass(ClassInfo classInfo) {
-    return classes
-        .stream().map(Clazz::getClassInfo)
-        .anyMatch(uri -> uri.getUri().equals(classInfo.getUri()));
+    return classIndex.get(classes, classInfo.getUri()) != null;
   }
 
   public boolean isInterface(ClassInfo classInfo) {
-    return interfaces.stream().map(Interface::getClassInfo)
-        .anyMatch(uri -> uri.getUri().equals(classInfo.getUri()));
+    return interfaceIndex.get(interfaces, classInfo.getUri()) != null;
   }
 
   public boolean isEnum(ClassInfo classInfo) {
-    return enums.stream().map(Enum::getClassInfo)
-        .anyMatch(uri -> uri.getUri().equals(classInfo.getUri()));
+    return enumIndex.get(enums, classInfo.getUri()) != null;
   }
 
   public List<ClassInfo> getSubClasses(ClassInfo classInfo) {
@@ -706,10 +744,7 @@ public class ClassGenerator extends BaseGenerator {
   }
 
   protected Interface getInterface(ClassInfo classInfo) {
-    return interfaces.stream()
-        .filter(i -> i.getUri().equals(classInfo.getUri()))
-        .findFirst()
-        .orElse(null);
+    return interfaceIndex.get(interfaces, classInfo.getUri());
   }
 
   protected Clazz getClass(ClassInfo classInfo) {
@@ -717,21 +752,18 @@ public class ClassGenerator extends BaseGenerator {
       return null;
     }
     // Search in classes, interfaces and enums
-    List<Clazz> completeList = new ArrayList<>();
-    completeList.addAll(classes);
-    completeList.addAll(interfaces);
-    completeList.addAll(enums);
-    return completeList.stream()
-        .filter(c -> c.getUri().equals(classInfo.getUri()))
-        .findFirst()
-        .orElse(null);
+    Clazz clazz = classIndex.get(classes, classInfo.getUri());
+    if (clazz == null) {
+      clazz = interfaceIndex.get(interfaces, classInfo.getUri());
+    }
+    if (clazz == null) {
+      clazz = enumIndex.get(enums, classInfo.getUri());
+    }
+    return clazz;
   }
 
   protected Enum getEnum(ClassInfo classInfo) {
-    return enums.stream()
-        .filter(e -> e.getUri().equals(classInfo.getUri()))
-        .findFirst()
-        .orElse(null);
+    return enumIndex.get(enums, classInfo.getUri());
   }
 
   protected Cardinality getCardinality(PropertyInfo property) {
@@ -751,6 +783,72 @@ public class ClassGenerator extends BaseGenerator {
     }
   }
 
+  /**
+   * Index of a list of classes by URI. The first class with a URI wins, as with a linear search.
+   * The index is rebuilt when it is asked for another list, or the list changed size.
+   */
+  private static class UriIndex<T extends Clazz> {
+
+    private List<? extends T> source;
+    private int size;
+    private Map<String, T> byUri = Map.of();
+
+    T get(List<? extends T> list, String uri) {
+      if (list != source || list.size() != size) {
+        Map<String, T> index = new HashMap<>();
+        for (T clazz : list) {
+          if (clazz.getUri() != null) {
+            index.putIfAbsent(clazz.getUri(), clazz);
+          }
+        }
+        source = list;
+        size = list.size();
+        byUri = index;
+      }
+      return uri != null ? byUri.get(uri) : null;
+    }
+  }
+
+  /**
+   * Attributes of a list of classes by property URI, in class and attribute order. Attributes that
+   * are filtered out of their class are skipped, so the first attribute returned is the one a
+   * linear search over the (current) class attributes would find.
+   */
+  private static class AttributeIndex {
+
+    private final List<? extends Clazz> source;
+    private final Map<String, List<Attribute>> byUri = new HashMap<>();
+    private final Set<Attribute> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    AttributeIndex(List<? extends Clazz> classes) {
+      this.source = classes;
+      classes.forEach(c -> c.getAttributes().forEach(a -> {
+        if (a.getUri() != null) {
+          byUri.computeIfAbsent(a.getUri(), k -> new ArrayList<>()).add(a);
+        }
+      }));
+    }
+
+    boolean isFor(List<? extends Clazz> classes) {
+      return classes == source;
+    }
+
+    Attribute first(String uri) {
+      for (Attribute attribute : byUri.getOrDefault(uri, List.of())) {
+        if (!removed.contains(attribute)) {
+          return attribute;
+        }
+      }
+      return null;
+    }
+
+    void removeAll(List<Attribute> before, List<Attribute> after) {
+      Set<Attribute> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+      kept.addAll(after);
+      before.stream().filter(a -> !kept.contains(a)).forEach(removed::add);
+    }
+  }
+
   @Getter
   @Setter
   public static class Clazz {
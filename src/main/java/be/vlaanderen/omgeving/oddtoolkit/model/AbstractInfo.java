@@ -1,6 +1,7 @@
 package be.vlaanderen.omgeving.oddtoolkit.model;
 
 import java.util.Objects;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.jena.rdf.model.Resource;
@@ -12,6 +13,9 @@ import org.jspecify.annotations.Nullable;
 @Setter
 public abstract class AbstractInfo {
   private String uri;
+  // id of the uri in the TermDictionary
+  @Setter(AccessLevel.NONE)
+  private int uriId = TermDictionary.NO_ID;
   private String name;
   private String label;
   private String comment;
@@ -29,7 +33,7 @@ public abstract class AbstractInfo {
     this.resource = resource;
     this.name = resource.getLocalName();
     if (this.uri == null) {
-      this.uri = resource.getURI();
+      setUri(resource.getURI());
     }
     // Get rdfs label and comment if available
     Statement labelStmt = resource.getProperty(RDFS.label);
@@ -46,6 +50,11 @@ public abstract class AbstractInfo {
     }
   }
 
+  public void setUri(String uri) {
+    this.uriId = TermDictionary.id(uri);
+    this.uri = TermDictionary.term(uriId);
+  }
+
   public String toString() {
     return getName();
   }
@@ -58,7 +67,7 @@ public abstract class AbstractInfo {
       return false;
     }
     AbstractInfo that = (AbstractInfo) o;
-    return Objects.equals(uri, that.uri);
+    return uriId == that.uriId;
   }
 
   public int hashCode() {
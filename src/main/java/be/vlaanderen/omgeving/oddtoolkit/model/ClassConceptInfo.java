@@ -16,7 +16,7 @@ public class ClassConceptInfo extends ConceptInfo {
       // If there are multiple, add all to the list
       resource.listProperties(OWL2.equivalentClass).forEachRemaining(stmt -> {
         if (stmt.getObject().isResource()) {
-          getEquivalents().add(stmt.getObject().asResource().getURI());
+          getEquivalents().add(TermDictionary.intern(stmt.getObject().asResource().getURI()));
         }
       });
     }
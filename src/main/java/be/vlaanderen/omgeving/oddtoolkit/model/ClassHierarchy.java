@@ -0,0 +1,193 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transitive closure of the superclass relation between classes.
+ *
+ * The closure is computed once over the strongly connected components of the hierarchy, so cycles
+ * (e.g. equivalent classes that are subclasses of each other) are handled and reported instead of
+ * recursing forever. Every class gets an integer id; ids are handed out in topological order
+ * (ancestors first), which keeps the ancestor bitsets short.
+ */
+public class ClassHierarchy {
+
+  private final Map<ClassInfo, Integer> ids = new IdentityHashMap<>();
+  // a URI can (before the references are updated) be shared by several instances
+  private final Map<String, BitSet> idsByUri = new HashMap<>();
+  private final List<ClassInfo> classes = new ArrayList<>();
+  private final List<BitSet> ancestors = new ArrayList<>();
+  private final List<List<String>> cycles = new ArrayList<>();
+
+  private ClassHierarchy() {
+  }
+
+  /**
+   * Build the hierarchy of the given classes (and every superclass reachable from them), and attach
+   * it to those classes so {@link ClassInfo#isSubClassOf(String)} uses it.
+   */
+  public static ClassHierarchy build(Collection<ClassInfo> roots) {
+    ClassHierarchy hierarchy = new ClassHierarchy();
+    hierarchy.compute(roots);
+    for (ClassInfo classInfo : hierarchy.classes) {
+      classInfo.setHierarchy(hierarchy);
+    }
+    return hierarchy;
+  }
+
+  /**
+   * Check if the class is a (transitive) subclass of the class with the given URI.
+   */
+  public boolean isSubClassOf(ClassInfo classInfo, String classUri) {
+    Integer id = ids.get(classInfo);
+    BitSet candidates = idsByUri.get(classUri);
+    return id != null && candidates != null && ancestors.get(id).intersects(candidates);
+  }
+
+  /**
+   * Check if the class is part of this hierarchy.
+   */
+  public boolean contains(ClassInfo classInfo) {
+    return ids.containsKey(classInfo);
+  }
+
+  /**
+   * Get the URIs of all (transitive) superclasses of the class, ancestors first.
+   */
+  public List<String> getAncestorUris(ClassInfo classInfo) {
+    Integer id = ids.get(classInfo);
+    if (id == null) {
+      return List.of();
+    }
+    List<String> uris = new ArrayList<>();
+    ancestors.get(id).stream().forEach(i -> uris.add(classes.get(i).getUri()));
+    return uris;
+  }
+
+  /**
+   * Get the cycles found in the hierarchy, each as the URIs of the classes taking part in it.
+   */
+  public List<List<String>> getCycles() {
+    return Collections.unmodifiableList(cycles);
+  }
+
+  public int size() {
+    return classes.size();
+  }
+
+  // Iterative Tarjan: components are completed after every component reachable from them, so the
+  // closure of a component only depends on closures that are already known.
+  private void compute(Collection<ClassInfo> roots) {
+    Map<ClassInfo, int[]> state = new IdentityHashMap<>(); // {index, lowlink, onStack}
+    Deque<ClassInfo> stack = new ArrayDeque<>();
+    Deque<Frame> callStack = new ArrayDeque<>();
+    int[] counter = {0};
+
+    for (ClassInfo root : roots) {
+      if (root == null || state.containsKey(root)) {
+        continue;
+      }
+      visit(root, state, stack, callStack, counter);
+      while (!callStack.isEmpty()) {
+        Frame frame = callStack.peek();
+        List<ClassInfo> superClasses = frame.classInfo.getSuperClasses();
+        if (superClasses != null && frame.next < superClasses.size()) {
+          ClassInfo superClass = superClasses.get(frame.next++);
+          if (superClass == null) {
+            continue;
+          }
+          int[] superState = state.get(superClass);
+          if (superState == null) {
+            visit(superClass, state, stack, callStack, counter);
+          } else if (superState[2] == 1) {
+            int[] own = state.get(frame.classInfo);
+            own[1] = Math.min(own[1], superState[0]);
+          }
+          continue;
+        }
+        callStack.pop();
+        int[] own = state.get(frame.classInfo);
+        if (own[1] == own[0]) {
+          completeComponent(frame.classInfo, state, stack);
+        }
+        if (!callStack.isEmpty()) {
+          int[] parent = state.get(callStack.peek().classInfo);
+          parent[1] = Math.min(parent[1], own[1]);
+        }
+      }
+    }
+  }
+
+  private void visit(ClassInfo classInfo, Map<ClassInfo, int[]> state, Deque<ClassInfo> stack,
+      Deque<Frame> callStack, int[] counter) {
+    state.put(classInfo, new int[]{counter[0], counter[0], 1});
+    counter[0]++;
+    stack.push(classInfo);
+    callStack.push(new Frame(classInfo));
+  }
+
+  private void completeComponent(ClassInfo head, Map<ClassInfo, int[]> state,
+      Deque<ClassInfo> stack) {
+    List<ClassInfo> members = new ArrayList<>();
+    ClassInfo member;
+    do {
+      member = stack.pop();
+      state.get(member)[2] = 0;
+      members.add(member);
+    } while (member != head);
+
+    BitSet closure = new BitSet();
+    for (ClassInfo classInfo : members) {
+      int id = classes.size();
+      ids.put(classInfo, id);
+      idsByUri.computeIfAbsent(classInfo.getUri(), k -> new BitSet()).set(id);
+      classes.add(classInfo);
+      ancestors.add(closure);
+    }
+    boolean cyclic = members.size() > 1;
+    for (ClassInfo classInfo : members) {
+      if (classInfo.getSuperClasses() == null) {
+        continue;
+      }
+      for (ClassInfo superClass : classInfo.getSuperClasses()) {
+        if (superClass == null) {
+          continue;
+        }
+        int superId = ids.get(superClass);
+        closure.set(superId);
+        // all members share the closure; a superclass in another component is already complete
+        if (ancestors.get(superId) != closure) {
+          closure.or(ancestors.get(superId));
+        } else if (superClass == classInfo) {
+          cyclic = true;
+        }
+      }
+    }
+    if (cyclic) {
+      // every member of a cycle is a (transitive) subclass of every other member
+      for (ClassInfo classInfo : members) {
+        closure.set(ids.get(classInfo));
+      }
+      cycles.add(members.stream().map(ClassInfo::getUri).toList().reversed());
+    }
+  }
+
+  private static class Frame {
+
+    private final ClassInfo classInfo;
+    private int next;
+
+    Frame(ClassInfo classInfo) {
+      this.classInfo = classInfo;
+    }
+  }
+}
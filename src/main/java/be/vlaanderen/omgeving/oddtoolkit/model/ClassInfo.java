@@ -1,7 +1,14 @@
 package be.vlaanderen.omgeving.oddtoolkit.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.jena.rdf.model.Resource;
@@ -11,25 +18,97 @@ import org.apache.jena.rdf.model.Resource;
 public class ClassInfo extends AbstractInfo {
   private UriTemplate uriTemplate;
   private List<ClassInfo> superClasses = new ArrayList<>();
-  private List<PropertyInfo> properties = new ArrayList<>();
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final Map<String, PropertyInfo> propertiesByUri = new LinkedHashMap<>();
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private List<PropertyInfo> propertiesView;
   private List<Resource> individuals = new ArrayList<>();
+  // precomputed superclass closure, see OntologyClassExtractAdapter
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.PACKAGE)
+  private ClassHierarchy hierarchy;
 
   public ClassInfo(Scope scope, Resource resource) {
     super(scope, resource);
   }
 
-  public PropertyInfo getPropertyByUri(String propertyUri) {
-    for (PropertyInfo property : properties) {
-      if (property.getUri().equals(propertyUri)) {
-        return property;
-      }
+  /**
+   * Return an immutable view of the properties (in insertion order). Use addProperty() to add while
+   * ensuring uniqueness.
+   */
+  public List<PropertyInfo> getProperties() {
+    if (propertiesView == null) {
+      propertiesView = List.copyOf(propertiesByUri.values());
+    }
+    return propertiesView;
+  }
+
+  /**
+   * Replace the properties. Duplicates (by URI) will be ignored and the first occurrence wins.
+   */
+  public void setProperties(List<PropertyInfo> properties) {
+    propertiesByUri.clear();
+    propertiesView = null;
+    if (properties == null) return;
+    properties.forEach(this::addProperty);
+  }
+
+  /**
+   * Add a property if its URI is not already present. Returns true if added, false if a duplicate.
+   */
+  public boolean addProperty(PropertyInfo propertyInfo) {
+    if (propertyInfo == null || propertyInfo.getUri() == null) return false;
+    if (propertiesByUri.putIfAbsent(propertyInfo.getUri(), propertyInfo) != null) return false;
+    propertiesView = null;
+    return true;
+  }
+
+  /**
+   * Replace the property with the same URI, keeping its position. Adds it if not present.
+   */
+  public void replaceProperty(PropertyInfo propertyInfo) {
+    if (propertyInfo == null || propertyInfo.getUri() == null) return;
+    propertiesByUri.put(propertyInfo.getUri(), propertyInfo);
+    propertiesView = null;
+  }
+
+  /**
+   * Remove the properties matching the filter. Returns true if any property was removed.
+   */
+  public boolean removePropertiesIf(Predicate<PropertyInfo> filter) {
+    boolean removed = propertiesByUri.values().removeIf(filter);
+    if (removed) {
+      propertiesView = null;
     }
-    return null;
+    return removed;
+  }
+
+  public PropertyInfo getPropertyByUri(String propertyUri) {
+    return propertiesByUri.get(propertyUri);
+  }
+
+  public void setSuperClasses(List<ClassInfo> superClasses) {
+    this.superClasses = superClasses;
+    this.hierarchy = null;
   }
 
   public boolean isSubClassOf(String classUri) {
+    if (hierarchy != null) {
+      return hierarchy.isSubClassOf(this, classUri);
+    }
+    return isSubClassOf(TermDictionary.id(classUri),
+        Collections.newSetFromMap(new IdentityHashMap<>()));
+  }
+
+  // Walks the superclasses when no hierarchy was built, visiting every class once
+  private boolean isSubClassOf(int classId, Set<ClassInfo> visited) {
     for (ClassInfo superClass : superClasses) {
-      if (superClass.getUri().equals(classUri) || superClass.isSubClassOf(classUri)) {
+      if (!visited.add(superClass)) {
+        continue;
+      }
+      if (superClass.getUriId() == classId || superClass.isSubClassOf(classId, visited)) {
         return true;
       }
     }
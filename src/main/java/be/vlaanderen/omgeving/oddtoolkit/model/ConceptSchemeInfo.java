@@ -1,10 +1,13 @@
 package be.vlaanderen.omgeving.oddtoolkit.model;
 
 import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.jena.query.Dataset;
 import org.apache.jena.rdf.model.Model;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,9 +20,70 @@ public class ConceptSchemeInfo extends AbstractInfo {
   private List<ClassConceptInfo> classConcepts;
   private List<PropertyConceptInfo> propertyConcepts;
   private Model model;
+  // the models of the source files as named graphs, named by the URI of the file
+  private Dataset sources;
+  // reverse indexes from equivalent class/property URI to concept, see indexConcepts()
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private Map<String, ClassConceptInfo> classConceptsByEquivalent;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private Map<String, PropertyConceptInfo> propertyConceptsByEquivalent;
 
   public ConceptSchemeInfo(OntologyConfiguration config) {
     super(Scope.CONCEPTS, null);
     this.config = config;
   }
+
+  public void setClassConcepts(List<ClassConceptInfo> classConcepts) {
+    this.classConcepts = classConcepts;
+    this.classConceptsByEquivalent = null;
+  }
+
+  public void setPropertyConcepts(List<PropertyConceptInfo> propertyConcepts) {
+    this.propertyConcepts = propertyConcepts;
+    this.propertyConceptsByEquivalent = null;
+  }
+
+  /**
+   * Build the reverse indexes from equivalent URI to concept. When several concepts share an
+   * equivalent, the first one wins.
+   */
+  public void indexConcepts() {
+    classConceptsByEquivalent = index(classConcepts);
+    propertyConceptsByEquivalent = index(propertyConcepts);
+  }
+
+  /**
+   * Get the class concept that is equivalent to the class, or null if there is none.
+   */
+  public ClassConceptInfo getClassConceptByEquivalent(String classUri) {
+    if (classConceptsByEquivalent == null) {
+      classConceptsByEquivalent = index(classConcepts);
+    }
+    return classConceptsByEquivalent.get(classUri);
+  }
+
+  /**
+   * Get the property concept that is equivalent to the property, or null if there is none.
+   */
+  public PropertyConceptInfo getPropertyConceptByEquivalent(String propertyUri) {
+    if (propertyConceptsByEquivalent == null) {
+      propertyConceptsByEquivalent = index(propertyConcepts);
+    }
+    return propertyConceptsByEquivalent.get(propertyUri);
+  }
+
+  private static <T extends ConceptInfo> Map<String, T> index(List<T> concepts) {
+    Map<String, T> index = new HashMap<>();
+    if (concepts == null) {
+      return index;
+    }
+    for (T concept : concepts) {
+      if (concept.getEquivalents() != null) {
+        concept.getEquivalents().forEach(uri -> index.putIfAbsent(uri, concept));
+      }
+    }
+    return index;
+  }
 }
@@ -0,0 +1,106 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Graph of owl:imports between ontologies, keyed by normalized ontology URI.
+ *
+ * Every node is visited (fetched) at most once. The graph is kept on the {@link OntologyInfo} for
+ * diagnostics, e.g. to find out through which ontology an import was pulled in or which imports
+ * could not be resolved.
+ */
+public class ImportGraph {
+
+  private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+  /**
+   * Add a node if it does not exist yet.
+   *
+   * @param key       the normalized URI
+   * @param reference the URI as it was first referenced
+   * @param depth     the import depth (0 for the root ontology)
+   * @return true if the node was added, false if it was already known
+   */
+  public synchronized boolean addNode(String key, String reference, int depth) {
+    if (nodes.containsKey(key)) {
+      return false;
+    }
+    nodes.put(key, new Node(key, reference, depth));
+    return true;
+  }
+
+  /**
+   * Record that the ontology identified by source imports target.
+   */
+  public synchronized void addImport(String source, String target) {
+    var node = nodes.get(source);
+    if (node != null) {
+      node.imports.add(target);
+    }
+  }
+
+  public synchronized void setResolved(String key, boolean resolved) {
+    var node = nodes.get(key);
+    if (node != null) {
+      node.resolved = resolved;
+    }
+  }
+
+  public synchronized boolean contains(String key) {
+    return nodes.containsKey(key);
+  }
+
+  public synchronized Node getNode(String key) {
+    return nodes.get(key);
+  }
+
+  /**
+   * Get all nodes in the order they were discovered (breadth first).
+   */
+  public synchronized Map<String, Node> getNodes() {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+  }
+
+  public synchronized int size() {
+    return nodes.size();
+  }
+
+  @Override
+  public synchronized String toString() {
+    var sb = new StringBuilder();
+    for (var node : nodes.values()) {
+      sb.append(node.key).append(" (depth ").append(node.depth)
+          .append(node.resolved ? "" : ", unresolved").append(')');
+      for (var target : node.imports) {
+        sb.append("\n  -> ").append(target);
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  @Getter
+  public static class Node {
+
+    private final String key;
+    private final String reference;
+    private final int depth;
+    private final Set<String> imports = new LinkedHashSet<>();
+    private boolean resolved;
+
+    Node(String key, String reference, int depth) {
+      this.key = key;
+      this.reference = reference;
+      this.depth = depth;
+    }
+
+    public Set<String> getImports() {
+      return Collections.unmodifiableSet(imports);
+    }
+  }
+}
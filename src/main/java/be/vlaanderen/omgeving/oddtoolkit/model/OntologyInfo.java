@@ -2,13 +2,15 @@ package be.vlaanderen.omgeving.oddtoolkit.model;
 
 import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.query.Dataset;
 import org.apache.jena.rdf.model.Model;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -20,11 +22,23 @@ public class OntologyInfo extends AbstractInfo {
   @Setter(AccessLevel.NONE)
   private final OntologyConfiguration config;
   private final ConceptSchemeInfo concepts;
+  @Getter(AccessLevel.NONE)
   private final Map<String, ClassInfo> classesByUri = new LinkedHashMap<>();
+  // incremented on every change to the classes, used to invalidate the cached views
+  @Setter(AccessLevel.NONE)
+  private long classesVersion;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile ClassesView classesView;
 
   private Model model;
-  private InfModel inferredModel;
+  // the models of the source files as named graphs, named by the URI of the file
+  private Dataset sources;
+  private Model inferredModel;
   private Map<String, OntologyInfo> externalOntologies;
+  private ImportGraph importGraph;
+  private ClassHierarchy classHierarchy;
+  private ReasonerMetrics reasonerMetrics;
 
   @Autowired
   public OntologyInfo(OntologyConfiguration config) {
@@ -40,11 +54,18 @@ public class OntologyInfo extends AbstractInfo {
   }
 
   /**
-   * Return a mutable list snapshot of classes (in insertion order). Modifying this list does not
-   * affect the internal storage; use addClass() to add while ensuring uniqueness.
+   * Return an immutable view of the classes (in insertion order). The view is cached until the
+   * classes change; use addClass() to add while ensuring uniqueness.
    */
   public List<ClassInfo> getClasses() {
-    return new ArrayList<>(classesByUri.values());
+    return getClassesView().all();
+  }
+
+  /**
+   * Return an immutable view of the classes with the given scope (in insertion order).
+   */
+  public List<ClassInfo> getClasses(Scope scope) {
+    return getClassesView().byScope().getOrDefault(scope, List.of());
   }
 
   /**
@@ -52,6 +73,7 @@ public class OntologyInfo extends AbstractInfo {
    */
   public void setClasses(List<ClassInfo> classes) {
     classesByUri.clear();
+    classesVersion++;
     if (classes == null) return;
     for (ClassInfo ci : classes) {
       if (ci == null || ci.getUri() == null) continue;
@@ -66,10 +88,31 @@ public class OntologyInfo extends AbstractInfo {
     if (classInfo == null || classInfo.getUri() == null) return;
     if (classesByUri.containsKey(classInfo.getUri())) return;
     classesByUri.put(classInfo.getUri(), classInfo);
+    classesVersion++;
   }
 
   public ClassInfo getClassByUri(String uri) {
     return classesByUri.get(uri);
   }
 
+  private ClassesView getClassesView() {
+    ClassesView view = classesView;
+    if (view == null || view.version() != classesVersion) {
+      List<ClassInfo> all = List.copyOf(classesByUri.values());
+      Map<Scope, List<ClassInfo>> byScope = new EnumMap<>(Scope.class);
+      for (ClassInfo classInfo : all) {
+        byScope.computeIfAbsent(classInfo.getScope(), s -> new ArrayList<>()).add(classInfo);
+      }
+      byScope.replaceAll((s, classes) -> Collections.unmodifiableList(classes));
+      view = new ClassesView(classesVersion, all, byScope);
+      classesView = view;
+    }
+    return view;
+  }
+
+  private record ClassesView(long version, List<ClassInfo> all,
+                             Map<Scope, List<ClassInfo>> byScope) {
+
+  }
+
 }
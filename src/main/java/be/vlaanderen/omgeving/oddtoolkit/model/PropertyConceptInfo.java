@@ -18,7 +18,7 @@ public class PropertyConceptInfo extends ConceptInfo {
       // If there are multiple, add all to the list
       resource.listProperties(OWL2.equivalentProperty).forEachRemaining(stmt -> {
         if (stmt.getObject().isResource()) {
-          getEquivalents().add(stmt.getObject().asResource().getURI());
+          getEquivalents().add(TermDictionary.intern(stmt.getObject().asResource().getURI()));
         }
       });
     }
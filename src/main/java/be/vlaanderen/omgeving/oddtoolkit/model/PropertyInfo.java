@@ -46,7 +46,7 @@ public class PropertyInfo extends AbstractInfo {
       if (resource.hasProperty(RDFS.range)) {
         resource.listProperties(RDFS.range).forEachRemaining(stmt -> {
           if (stmt.getObject().isResource()) {
-            range.add(stmt.getObject().asResource().getURI());
+            range.add(TermDictionary.intern(stmt.getObject().asResource().getURI()));
           }
         });
       }
@@ -71,7 +71,7 @@ public class PropertyInfo extends AbstractInfo {
       // Set the range types
       resource.listProperties(OWL2.someValuesFrom).forEachRemaining(stmt -> {
         if (stmt.getObject().isResource() && stmt.getObject().asResource().getURI() != null) {
-          range.add(stmt.getObject().asResource().getURI());
+          range.add(TermDictionary.intern(stmt.getObject().asResource().getURI()));
         } else {
           throw new IllegalArgumentException(
               "Invalid range for property: " + getUri() + ". Range must be a resource with a valid URI. Found: " + stmt.getObject());
@@ -80,7 +80,7 @@ public class PropertyInfo extends AbstractInfo {
     } else if (resource.hasProperty(OWL2.allValuesFrom)) {
       resource.listProperties(OWL2.allValuesFrom).forEachRemaining(stmt -> {
         if (stmt.getObject().isResource()) {
-          range.add(stmt.getObject().asResource().getURI());
+          range.add(TermDictionary.intern(stmt.getObject().asResource().getURI()));
         }
       });
     }
@@ -92,6 +92,16 @@ public class PropertyInfo extends AbstractInfo {
     }
   }
 
+  public void setInverseOf(String inverseOf) {
+    this.inverseOf = TermDictionary.intern(inverseOf);
+  }
+
+  public void setRange(List<String> range) {
+    this.range = range == null ? null : new ArrayList<>(range.stream()
+        .map(TermDictionary::intern)
+        .toList());
+  }
+
   @Getter
   @Setter
   public static class Cardinality {
@@ -0,0 +1,26 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import lombok.Getter;
+
+/**
+ * Outcome of the reasoning step: how long it took and which strategy produced the inferred model.
+ */
+@Getter
+public class ReasonerMetrics {
+
+  // 'cache', the configured reasoner ('rules', 'owl', 'rdfs', ...) or the timeout fallback
+  private final String strategy;
+  private final long durationMs;
+  private final boolean timedOut;
+
+  public ReasonerMetrics(String strategy, long durationMs, boolean timedOut) {
+    this.strategy = strategy;
+    this.durationMs = durationMs;
+    this.timedOut = timedOut;
+  }
+
+  @Override
+  public String toString() {
+    return strategy + " (" + durationMs + " ms" + (timedOut ? ", timed out" : "") + ")";
+  }
+}
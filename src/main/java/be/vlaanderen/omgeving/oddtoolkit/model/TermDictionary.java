@@ -0,0 +1,66 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global dictionary of IRIs.
+ *
+ * Every IRI is assigned a compact int id the first time it is seen, and one canonical String
+ * instance is kept for it. The info model stores the canonical instances (so the many copies of
+ * the same IRI coming out of the parser and the reasoner share one String) together with the ids,
+ * which makes comparing two terms an int compare. Ids are never reused; the dictionary lives as long
+ * as the application, which is a single generation run.
+ */
+public final class TermDictionary {
+
+  /**
+   * Id of the null IRI.
+   */
+  public static final int NO_ID = -1;
+
+  private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+  private static volatile String[] terms = new String[1024];
+  private static int size;
+
+  private TermDictionary() {
+  }
+
+  /**
+   * Get the id of the IRI, assigning one if the IRI was not seen before.
+   */
+  public static int id(String iri) {
+    if (iri == null) {
+      return NO_ID;
+    }
+    Integer id = ids.get(iri);
+    return id != null ? id : ids.computeIfAbsent(iri, TermDictionary::add);
+  }
+
+  /**
+   * Get the canonical instance of the IRI.
+   */
+  public static String intern(String iri) {
+    return iri == null ? null : term(id(iri));
+  }
+
+  /**
+   * Get the IRI with the given id, or null for {@link #NO_ID}.
+   */
+  public static String term(int id) {
+    return id == NO_ID ? null : terms[id];
+  }
+
+  public static synchronized int size() {
+    return size;
+  }
+
+  // Called at most once per IRI, from within computeIfAbsent
+  private static synchronized int add(String iri) {
+    if (size == terms.length) {
+      terms = Arrays.copyOf(terms, size * 2);
+    }
+    terms[size] = iri;
+    return size++;
+  }
+}
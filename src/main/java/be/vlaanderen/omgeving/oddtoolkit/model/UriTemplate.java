@@ -41,7 +41,7 @@ public class UriTemplate extends AbstractInfo {
           String propertyUri = mappingResource.getProperty(
                   resource.getModel().getProperty("http://www.w3.org/ns/hydra/core#property"))
               .getObject().asResource().getURI();
-          variables.put(variableName, propertyUri);
+          variables.put(variableName, TermDictionary.intern(propertyUri));
         }
       });
     }
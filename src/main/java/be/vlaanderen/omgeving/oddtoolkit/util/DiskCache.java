@@ -0,0 +1,205 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Directory of cache files bounded in number of entries and total size, evicting the least recently
+ * used entries.
+ *
+ * An index file records the size and last access time of every entry. The index is only read and
+ * written while holding a file lock on the directory, so processes sharing the directory (e.g.
+ * concurrent build jobs) keep it consistent; entries are written through atomic renames. Entries are
+ * named by a SHA-256 hex digest (plus extension); such files found without index entry (e.g. written
+ * by an older version) are adopted into the index, other files in the directory, including the
+ * temporary files of entries still being written, are left alone.
+ */
+public class DiskCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(DiskCache.class);
+
+  private static final String INDEX_FILE = "cache.index";
+  private static final String LOCK_FILE = "cache.lock";
+  private static final Pattern ENTRY_NAME = Pattern.compile("^[0-9a-f]{64}(\\.[\\w.-]+)?$");
+  // suffix of the files written before their atomic rename, see RdfCacheFile.writeAtomically()
+  private static final String TMP_SUFFIX = ".tmp";
+  // a JVM may only hold one file lock per file, the threads of this JVM queue up here first
+  private static final Map<Path, Object> LOCKS = new ConcurrentHashMap<>();
+
+  private final Path dir;
+  private final int maxEntries;
+  private final long maxBytes;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * @param dir        the cache directory, created if missing
+   * @param maxEntries maximum number of entries, 0 = no limit
+   * @param maxBytes   maximum total size of the entries, 0 = no limit
+   */
+  public DiskCache(Path dir, int maxEntries, long maxBytes) throws IOException {
+    this.dir = Files.createDirectories(dir).toAbsolutePath().normalize();
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Get the file of the entry, marking it as used.
+   *
+   * @return the file, or null if there is no such entry
+   */
+  public Path get(String key) throws IOException {
+    Path file = dir.resolve(key);
+    boolean hit = locked(index -> {
+      if (!Files.exists(file)) {
+        index.remove(key);
+        return false;
+      }
+      index.put(key, new Entry(Files.size(file), System.currentTimeMillis()));
+      return true;
+    });
+    (hit ? hits : misses).incrementAndGet();
+    return hit ? file : null;
+  }
+
+  /**
+   * Atomically replace the entry by what the writer writes, then evict entries until the cache is
+   * within its limits again.
+   */
+  public void put(String key, RdfCacheFile.Writer writer) throws IOException {
+    Path file = dir.resolve(key);
+    RdfCacheFile.writeAtomically(file, writer);
+    long size = Files.size(file);
+    locked(index -> {
+      index.put(key, new Entry(size, System.currentTimeMillis()));
+      evict(index, key);
+      return null;
+    });
+  }
+
+  /**
+   * Remove the entry, e.g. because it expired or cannot be read.
+   */
+  public void remove(String key) throws IOException {
+    locked(index -> {
+      index.remove(key);
+      Files.deleteIfExists(dir.resolve(key));
+      return null;
+    });
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  @Override
+  public String toString() {
+    return dir + ": " + hits + " hits, " + misses + " misses, " + evictions + " evictions";
+  }
+
+  // Remove the least recently used entries (but the given one) while over a limit
+  private void evict(Map<String, Entry> index, String keep) throws IOException {
+    long total = index.values().stream().mapToLong(Entry::size).sum();
+    List<String> lru = index.entrySet().stream()
+        .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess()))
+        .map(Map.Entry::getKey)
+        .filter(key -> !key.equals(keep))
+        .toList();
+    for (String key : lru) {
+      boolean overEntries = maxEntries > 0 && index.size() > maxEntries;
+      boolean overBytes = maxBytes > 0 && total > maxBytes;
+      if (!overEntries && !overBytes) {
+        break;
+      }
+      total -= index.remove(key).size();
+      Files.deleteIfExists(dir.resolve(key));
+      evictions.incrementAndGet();
+      logger.debug("Evicted cache entry {} from {}", key, dir);
+    }
+  }
+
+  private <T> T locked(IndexAction<T> action) throws IOException {
+    synchronized (LOCKS.computeIfAbsent(dir, d -> new Object())) {
+      try (FileChannel channel = FileChannel.open(dir.resolve(LOCK_FILE),
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+          FileLock lock = channel.lock()) {
+        Map<String, Entry> index = readIndex();
+        T result = action.apply(index);
+        writeIndex(index);
+        return result;
+      }
+    }
+  }
+
+  private Map<String, Entry> readIndex() throws IOException {
+    Map<String, Entry> index = new LinkedHashMap<>();
+    Path indexFile = dir.resolve(INDEX_FILE);
+    if (Files.exists(indexFile)) {
+      for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+        String[] fields = line.split(" ");
+        if (fields.length == 3) {
+          try {
+            index.put(fields[0], new Entry(Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+          } catch (NumberFormatException e) {
+            logger.debug("Ignoring invalid cache index line in {}: {}", dir, line);
+          }
+        }
+      }
+    }
+    index.keySet().removeIf(key -> !Files.exists(dir.resolve(key)));
+    // adopt the cache files without index entry, last used when they were written
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : files.filter(Files::isRegularFile).toList()) {
+        String name = file.getFileName().toString();
+        if (!index.containsKey(name) && ENTRY_NAME.matcher(name).matches()
+            && !name.endsWith(TMP_SUFFIX)) {
+          index.put(name, new Entry(Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+        }
+      }
+    }
+    return index;
+  }
+
+  private void writeIndex(Map<String, Entry> index) throws IOException {
+    StringBuilder content = new StringBuilder();
+    index.forEach((key, entry) -> content.append(key).append(' ').append(entry.size())
+        .append(' ').append(entry.lastAccess()).append('\n'));
+    RdfCacheFile.writeAtomically(dir.resolve(INDEX_FILE),
+        out -> out.write(content.toString().getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private record Entry(long size, long lastAccess) {
+
+  }
+
+  @FunctionalInterface
+  private interface IndexAction<T> {
+
+    T apply(Map<String, Entry> index) throws IOException;
+  }
+}
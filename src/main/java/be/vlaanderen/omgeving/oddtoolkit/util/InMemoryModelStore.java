@@ -0,0 +1,53 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+
+/**
+ * Model store of plain in-memory models that are not kept by the store.
+ */
+public class InMemoryModelStore implements ModelStore {
+
+  @Override
+  public boolean isPersistent() {
+    return false;
+  }
+
+  @Override
+  public Model get(String name) {
+    return null;
+  }
+
+  @Override
+  public long storedAt(String name) {
+    return -1;
+  }
+
+  @Override
+  public Model put(String name, Model model) {
+    return model;
+  }
+
+  @Override
+  public Model load(String name, Consumer<Graph> loader) {
+    Model model = ModelFactory.createDefaultModel();
+    loader.accept(model.getGraph());
+    return model;
+  }
+
+  @Override
+  public void remove(String name) {
+  }
+
+  @Override
+  public List<String> names(String prefix) {
+    return List.of();
+  }
+
+  @Override
+  public void close() {
+  }
+}
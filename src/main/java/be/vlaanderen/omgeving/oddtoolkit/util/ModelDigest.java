@@ -0,0 +1,137 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+/**
+ * Computes a digest of the content of a model.
+ *
+ * The model is streamed triple by triple and every triple is hashed on its own; the triple hashes
+ * are summed, so the digest does not depend on the (unspecified) iteration order of the graph and
+ * no copy of the model is needed. Blank node labels are not stable between parses, so a blank node
+ * hashes by its content instead: the (summed) hashes of its outgoing triples, recursively. Moving a
+ * restriction filler or a list member from one blank node to another therefore changes the digest.
+ * The hashes of the blank nodes are kept while digesting; a blank node on a cycle hashes by the
+ * triples up to where the cycle closes.
+ */
+public class ModelDigest {
+
+  private ModelDigest() {
+  }
+
+  /**
+   * Get the hex encoded digest of the statements in the model.
+   */
+  public static String digest(Model model) {
+    return new Hasher(model.getGraph()).sum(Node.ANY).toString();
+  }
+
+  private static class Hasher {
+
+    private final Graph graph;
+    private final MessageDigest md = sha256();
+    private final Map<Node, String> blankNodes = new HashMap<>();
+    private final Set<Node> visiting = new HashSet<>();
+    // whether the blank node being hashed is on a cycle, its hash then depends on the entry point
+    private boolean cycle;
+
+    Hasher(Graph graph) {
+      this.graph = graph;
+    }
+
+    // Sum of the hashes of the triples with the given subject (any subject for Node.ANY)
+    Sum sum(Node subject) {
+      Sum sum = new Sum();
+      ExtendedIterator<Triple> it = graph.find(subject, Node.ANY, Node.ANY);
+      try {
+        while (it.hasNext()) {
+          Triple triple = it.next();
+          String s = term(triple.getSubject());
+          String p = term(triple.getPredicate());
+          String o = term(triple.getObject());
+          update(s);
+          update(p);
+          update(o);
+          sum.add(md.digest());
+        }
+      } finally {
+        it.close();
+      }
+      return sum;
+    }
+
+    private String term(Node node) {
+      if (node.isBlank()) {
+        return blankNode(node);
+      } else if (node.isLiteral()) {
+        return "\"" + node.getLiteralLexicalForm() + "\"^^" + node.getLiteralDatatypeURI()
+            + "@" + node.getLiteralLanguage();
+      }
+      return node.toString();
+    }
+
+    private String blankNode(Node node) {
+      String known = blankNodes.get(node);
+      if (known != null) {
+        return known;
+      }
+      if (!visiting.add(node)) {
+        cycle = true;
+        return "_:cycle";
+      }
+      boolean outerCycle = cycle;
+      cycle = false;
+      String hash = "_:" + sum(node);
+      visiting.remove(node);
+      if (!cycle) {
+        blankNodes.put(node, hash);
+      }
+      cycle |= outerCycle;
+      return hash;
+    }
+
+    private void update(String term) {
+      md.update(term.getBytes(StandardCharsets.UTF_8));
+      md.update((byte) 0);
+    }
+  }
+
+  // Order independent sum of hashes
+  private static class Sum {
+
+    private long count;
+    private long high;
+    private long low;
+
+    void add(byte[] hash) {
+      ByteBuffer buffer = ByteBuffer.wrap(hash);
+      high += buffer.getLong();
+      low += buffer.getLong();
+      count++;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%016x%016x%016x", count, high, low);
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import org.apache.jena.graph.Factory;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.impl.WrappedGraph;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.reasoner.InfGraph;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+
+/**
+ * Read-only, indexed in-memory copies of models.
+ *
+ * Inference models answer queries through the rule engine, which keeps internal state and is not
+ * safe to read from several threads. A snapshot holds all (base and inferred) statements in a plain
+ * in-memory graph, which can be read concurrently as long as nobody writes to it; the snapshot is
+ * read-only to guarantee that.
+ */
+public class ModelSnapshot {
+
+  private ModelSnapshot() {
+  }
+
+  /**
+   * Copy all statements of the model into a read-only in-memory model.
+   */
+  public static Model of(Model model) {
+    Graph graph = Factory.createDefaultGraph();
+    GraphUtil.addInto(graph, model.getGraph());
+    graph.getPrefixMapping().setNsPrefixes(model.getNsPrefixMap());
+    return ModelFactory.createModelForGraph(new GraphReadOnly(graph));
+  }
+
+  /**
+   * Get a model with the same statements that can be read from several threads: the model itself
+   * if it is read-safe, a snapshot otherwise.
+   */
+  public static Model readSafe(Model model) {
+    return model == null || isReadSafe(model) ? model : of(model);
+  }
+
+  /**
+   * Check if the model can be read from several threads without a snapshot, i.e. it is not backed
+   * by an inference graph.
+   */
+  public static boolean isReadSafe(Model model) {
+    Graph graph = model.getGraph();
+    while (graph instanceof WrappedGraph wrapped && !(graph instanceof InfGraph)) {
+      graph = wrapped.getWrapped();
+    }
+    return !(graph instanceof InfGraph);
+  }
+}
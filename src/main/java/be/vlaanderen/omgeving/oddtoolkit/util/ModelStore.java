@@ -0,0 +1,88 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.ModelStoreProperties;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.rdf.model.Model;
+
+/**
+ * Holds the models of the pipeline by name, e.g. the loaded ontology, the external ontologies and
+ * the inferred closures.
+ *
+ * The in-memory store keeps nothing itself: every model is a plain heap graph, as if there were no
+ * store. A persistent store keeps the models on disk, so the heap only holds the statements in use,
+ * and returns them again in later runs.
+ */
+public interface ModelStore extends AutoCloseable {
+
+  /**
+   * Create the store configured by the properties.
+   *
+   * @throws IllegalArgumentException if the type is unknown
+   */
+  static ModelStore of(ModelStoreProperties properties) {
+    String type = properties.getType() == null ? "memory"
+        : properties.getType().trim().toLowerCase(Locale.ROOT);
+    return switch (type) {
+      case "", "memory" -> new InMemoryModelStore();
+      case "tdb2" -> new Tdb2ModelStore(Path.of(properties.getDirectory()));
+      default -> throw new IllegalArgumentException("Unknown model store type: " + type);
+    };
+  }
+
+  /**
+   * Whether the models outlive the run (and the heap).
+   */
+  boolean isPersistent();
+
+  /**
+   * Get the stored model with the given name.
+   *
+   * @return the model, or null if there is no (non-empty) model with that name
+   */
+  Model get(String name);
+
+  /**
+   * Get the time the model with the given name was last stored, in milliseconds since the epoch.
+   *
+   * @return the time, or -1 if there is no model with that name
+   */
+  long storedAt(String name);
+
+  /**
+   * Store the model under the given name, replacing any model stored before.
+   *
+   * @return the stored model, to be used instead of the given one
+   */
+  default Model put(String name, Model model) {
+    return load(name, graph -> {
+      GraphUtil.addInto(graph, model.getGraph());
+      graph.getPrefixMapping().setNsPrefixes(model.getNsPrefixMap());
+    });
+  }
+
+  /**
+   * Replace the model with the given name by the statements the loader adds to the (empty) graph it
+   * is given, without building the model on the heap first.
+   *
+   * @return the stored model
+   */
+  Model load(String name, Consumer<Graph> loader);
+
+  /**
+   * Remove the model with the given name, if any.
+   */
+  void remove(String name);
+
+  /**
+   * Get the names of the stored models starting with the prefix.
+   */
+  List<String> names(String prefix);
+
+  @Override
+  void close();
+}
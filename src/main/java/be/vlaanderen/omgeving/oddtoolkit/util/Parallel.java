@@ -0,0 +1,59 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Thread pools for the parallel parts of the toolkit, sized by a configured parallelism.
+ *
+ * A parallelism of 0 (the default of all parallelism settings) or less means one thread per
+ * available processor. Models read from several threads must be read-safe, see
+ * {@link ModelSnapshot#readSafe(org.apache.jena.rdf.model.Model)}.
+ */
+public class Parallel {
+
+  private Parallel() {
+  }
+
+  /**
+   * The number of threads for the configured parallelism.
+   */
+  public static int threads(int parallelism) {
+    return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * A fixed thread pool with the number of threads for the configured parallelism.
+   */
+  public static ExecutorService fixedPool(int parallelism) {
+    return Executors.newFixedThreadPool(threads(parallelism));
+  }
+
+  /**
+   * Apply the function to every item on a pool of its own, keeping the order of the items.
+   */
+  public static <T, R> List<R> map(List<T> items, int parallelism, Function<T, R> function) {
+    ForkJoinPool pool = new ForkJoinPool(threads(parallelism));
+    try {
+      return pool.submit(() -> items.parallelStream().map(function).toList()).join();
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Apply the action to every item on a pool of its own.
+   */
+  public static <T> void forEach(List<T> items, int parallelism, Consumer<T> action) {
+    ForkJoinPool pool = new ForkJoinPool(threads(parallelism));
+    try {
+      pool.submit(() -> items.parallelStream().forEach(action)).join();
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Disk cache of parsed source files, so unchanged files are read from a (binary) snapshot instead
+ * of being parsed again.
+ *
+ * A snapshot is keyed by the SHA-256 of the file content and the load options that change the
+ * parsed model. Hashing is skipped for files whose size and modification time are still the ones
+ * recorded with the last computed hash (the stamp of the file). Snapshots and stamps are entries of
+ * a {@link DiskCache}, which bounds the directory and is safe to share between jobs.
+ */
+public class ParsedModelCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParsedModelCache.class);
+
+  private final DiskCache cache;
+  private final Lang lang;
+
+  /**
+   * @param dir        the cache directory, created if missing
+   * @param lang       the format of the snapshots
+   * @param maxEntries maximum number of snapshots and stamps, 0 = no limit
+   * @param maxBytes   maximum total size of the snapshots and stamps, 0 = no limit
+   */
+  public ParsedModelCache(Path dir, Lang lang, int maxEntries, long maxBytes) throws IOException {
+    this.cache = new DiskCache(dir, maxEntries, maxBytes);
+    this.lang = lang;
+  }
+
+  /**
+   * Get the snapshot of the file parsed with the given options.
+   *
+   * @return the model, or null if there is no (readable) snapshot
+   */
+  public Model get(Path file, String options) {
+    try {
+      Path snapshot = cache.get(snapshotFor(file, options));
+      if (snapshot == null) {
+        return null;
+      }
+      Model model = RdfCacheFile.read(snapshot, lang);
+      if (model == null) {
+        logger.debug("Ignoring snapshot {}: not written as {}", snapshot, lang.getLabel());
+      } else {
+        logger.debug("Loaded snapshot of {} from {}", file, snapshot);
+      }
+      return model;
+    } catch (Exception e) {
+      logger.warn("Failed to read snapshot of {}: {}", file, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Store the model parsed from the file with the given options.
+   */
+  public void put(Path file, String options, Model model) {
+    try {
+      String snapshot = snapshotFor(file, options);
+      cache.put(snapshot, RdfCacheFile.writer(model, lang));
+      logger.debug("Wrote snapshot of {} to {}", file, snapshot);
+    } catch (Exception e) {
+      logger.warn("Failed to write snapshot of {}: {}", file, e.getMessage());
+    }
+  }
+
+  private String snapshotFor(Path file, String options) throws IOException {
+    return sha256Hex(contentHash(file) + "|" + options) + RdfCacheFile.extension(lang);
+  }
+
+  // The hash of the content, taken from the stamp while the size and modification time match
+  private String contentHash(Path file) throws IOException {
+    Path absolute = file.toAbsolutePath().normalize();
+    String stamp = Files.size(absolute) + " " + Files.getLastModifiedTime(absolute).toMillis();
+    String stampKey = sha256Hex(absolute.toString()) + ".stamp";
+    Path stampFile = cache.get(stampKey);
+    if (stampFile != null) {
+      String recorded = Files.readString(stampFile, StandardCharsets.UTF_8);
+      if (recorded.startsWith(stamp + " ")) {
+        return recorded.substring(stamp.length() + 1).strip();
+      }
+    }
+
+    MessageDigest md = sha256();
+    try (InputStream in = new DigestInputStream(Files.newInputStream(absolute), md)) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    String hash = HexFormat.of().formatHex(md.digest());
+    cache.put(stampKey, out -> out.write((stamp + " " + hash).getBytes(StandardCharsets.UTF_8)));
+    return hash;
+  }
+
+  private static String sha256Hex(String input) {
+    return HexFormat.of().formatHex(sha256().digest(input.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
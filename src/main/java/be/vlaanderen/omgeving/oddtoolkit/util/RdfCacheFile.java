@@ -0,0 +1,160 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+
+/**
+ * Reads and writes models to cache files in a configurable RDF serialization.
+ *
+ * Besides the text formats (Turtle, N-Triples, ...) the binary RDF Thrift and RDF Protobuf
+ * encodings are supported; they are considerably faster to parse. Every cache file starts with a
+ * one-line header recording the format it was written in, so a cache file written in another
+ * format (or by an older version without header) is treated as a cache miss instead of being
+ * parsed with the wrong syntax.
+ */
+public class RdfCacheFile {
+
+  private static final String HEADER_PREFIX = "oddtoolkit-cache format=";
+  private static final int MAX_HEADER_LENGTH = 256;
+
+  private static final Map<String, Lang> ALIASES = Map.of(
+      "THRIFT", Lang.RDFTHRIFT,
+      "RDF-THRIFT", Lang.RDFTHRIFT,
+      "RDF_THRIFT", Lang.RDFTHRIFT,
+      "PROTOBUF", Lang.RDFPROTO,
+      "PROTO", Lang.RDFPROTO,
+      "RDF-PROTO", Lang.RDFPROTO,
+      "RDF_PROTO", Lang.RDFPROTO,
+      "RDF-PROTOBUF", Lang.RDFPROTO);
+
+  private RdfCacheFile() {
+  }
+
+  /**
+   * Resolve a configured format name (Jena language name, e.g. TURTLE, N-TRIPLES, RDF-THRIFT,
+   * RDF-PROTO) to a Jena language.
+   *
+   * @throws IllegalArgumentException if the format is unknown
+   */
+  public static Lang resolveLang(String format) {
+    if (format == null || format.isBlank()) {
+      return Lang.TURTLE;
+    }
+    var alias = ALIASES.get(format.trim().toUpperCase(Locale.ROOT));
+    if (alias != null) {
+      return alias;
+    }
+    var lang = RDFLanguages.nameToLang(format.trim());
+    if (lang == null) {
+      throw new IllegalArgumentException("Unknown RDF cache format: " + format);
+    }
+    return lang;
+  }
+
+  /**
+   * Get the file extension (including the dot) used for cache files of the given language.
+   */
+  public static String extension(Lang lang) {
+    var extensions = lang.getFileExtensions();
+    return extensions.isEmpty() ? ".rdf" : "." + extensions.get(0);
+  }
+
+  /**
+   * Atomically write the model to the file, prefixed with the format header. Every writer uses a
+   * temporary file of its own, so processes sharing the cache directory can write the same file
+   * concurrently; readers see either the old or a complete new file.
+   */
+  public static void write(Model model, Path file, Lang lang) throws IOException {
+    writeAtomically(file, writer(model, lang));
+  }
+
+  /**
+   * Get a writer of the model, prefixed with the format header.
+   */
+  public static Writer writer(Model model, Lang lang) {
+    return out -> {
+      out.write(header(lang));
+      RDFDataMgr.write(out, model, lang);
+    };
+  }
+
+  /**
+   * Atomically replace the file by what the writer writes, see write().
+   */
+  public static void writeAtomically(Path file, Writer writer) throws IOException {
+    var tmp = Files.createTempFile(file.toAbsolutePath().getParent(),
+        file.getFileName().toString(), ".tmp");
+    try {
+      try (var out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+        writer.write(out);
+      }
+      try {
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException amnse) {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Writes the content of a file.
+   */
+  @FunctionalInterface
+  public interface Writer {
+
+    void write(OutputStream out) throws IOException;
+  }
+
+  /**
+   * Read a model from a cache file.
+   *
+   * @return the model, or null if the file was written in another format
+   * @throws IOException if the file cannot be read
+   */
+  public static Model read(Path file, Lang lang) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+      if (!lang.getLabel().equals(readFormat(in))) {
+        return null;
+      }
+      var model = ModelFactory.createDefaultModel();
+      RDFDataMgr.read(model, in, lang);
+      return model;
+    }
+  }
+
+  private static byte[] header(Lang lang) {
+    return (HEADER_PREFIX + lang.getLabel() + "\n").getBytes(StandardCharsets.UTF_8);
+  }
+
+  // Consumes the header line and returns the recorded format label, null if there is no header
+  private static String readFormat(InputStream in) throws IOException {
+    var line = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) != -1 && b != '\n') {
+      if (line.size() >= MAX_HEADER_LENGTH) {
+        return null;
+      }
+      line.write(b);
+    }
+    var header = line.toString(StandardCharsets.UTF_8);
+    return header.startsWith(HEADER_PREFIX) ? header.substring(HEADER_PREFIX.length()) : null;
+  }
+}
@@ -0,0 +1,345 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.RdfLoadProperties;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads RDF sources by streaming them through the Jena parser into a graph.
+ *
+ * The syntax of a local file is detected from its content (falling back to the file extension), and
+ * gzip compressed files are decompressed on the fly. N-Triples and N-Quads are split into chunks at
+ * line boundaries and parsed on several threads; only a bounded number of chunks is in flight at
+ * any time, so the memory used besides the graph itself does not grow with the size of the source.
+ * A predicate filter drops the triples the pipeline never uses while parsing, before they are
+ * stored. Quads are loaded as triples, merging their graphs.
+ */
+public class RdfLoader {
+
+  private static final Logger logger = LoggerFactory.getLogger(RdfLoader.class);
+
+  // number of bytes looked at to detect the syntax
+  private static final int HEAD_SIZE = 8192;
+  private static final int MAX_DETECTION_LINES = 10;
+
+  private static final Pattern XML_START = Pattern.compile(
+      "^<(\\?|!|[A-Za-z_][\\w.-]*(:[A-Za-z_][\\w.-]*)?[\\s/>])");
+  private static final Pattern TURTLE_DIRECTIVE = Pattern.compile(
+      "^(@prefix|@base|prefix|base)\\s", Pattern.CASE_INSENSITIVE);
+  private static final String NT_TERM =
+      "(?:<[^<>\"\\s]*>|_:\\S+|\"(?:[^\"\\\\]|\\\\.)*\"(?:@[A-Za-z0-9-]+|\\^\\^<[^<>\"\\s]*>)?)";
+  private static final Pattern NT_TRIPLE = Pattern.compile(
+      "^" + NT_TERM + "\\s*" + NT_TERM + "\\s*" + NT_TERM + "\\s*\\.\\s*(#.*)?$");
+  private static final Pattern NT_QUAD = Pattern.compile(
+      "^" + NT_TERM + "\\s*" + NT_TERM + "\\s*" + NT_TERM + "\\s*" + NT_TERM
+          + "\\s*\\.\\s*(#.*)?$");
+
+  private RdfLoader() {
+  }
+
+  /**
+   * Load the RDF source at the given location (a file path or URL) into a new in-memory model.
+   *
+   * @throws UncheckedIOException if the source cannot be read
+   */
+  public static Model load(String location, RdfLoadProperties properties) {
+    Model model = ModelFactory.createDefaultModel();
+    load(location, properties, model.getGraph());
+    return model;
+  }
+
+  /**
+   * Load the RDF source at the given location (a file path or URL) into the graph.
+   *
+   * @throws UncheckedIOException if the source cannot be read
+   */
+  public static void load(String location, RdfLoadProperties properties, Graph graph) {
+    Filter filter = new Filter(properties);
+    long start = System.nanoTime();
+    Path file = localFile(location);
+    Lang lang = null;
+    long bytes = -1;
+    if (file == null) {
+      // remote source, the syntax follows from the content type
+      RDFParser.source(location).parse(new Sink(filter, graph::add, graph));
+    } else {
+      try (InputStream in = open(file)) {
+        lang = properties.getFormat() == null || properties.getFormat().isBlank()
+            ? detectLang(head(in), file.getFileName().toString())
+            : RdfCacheFile.resolveLang(properties.getFormat());
+        bytes = Files.size(file);
+        if (properties.isParallel() && (lang.equals(Lang.NTRIPLES) || lang.equals(Lang.NQUADS))) {
+          parseChunks(in, lang, graph, filter, properties, location);
+        } else {
+          RDFParser.source(in).lang(lang).base(file.toUri().toString())
+              .parse(new Sink(filter, graph::add, graph));
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Unable to read " + location, e);
+      }
+    }
+    report(location, lang, filter.kept.sum(), filter.dropped.sum(), bytes,
+        System.nanoTime() - start);
+  }
+
+  /**
+   * Detect the syntax of an RDF document from its first bytes, falling back to the extension of the
+   * file name (and then Turtle) when the content is binary or not conclusive.
+   */
+  public static Lang detectLang(byte[] head, String fileName) {
+    Lang byExtension = RDFLanguages.filenameToLang(fileName.endsWith(".gz")
+        ? fileName.substring(0, fileName.length() - 3) : fileName);
+    for (byte b : head) {
+      if (b >= 0 && b < 0x09 || b > 0x0D && b < 0x20) {
+        // binary, e.g. RDF Thrift or RDF Protobuf
+        return byExtension != null ? byExtension : Lang.RDFTHRIFT;
+      }
+    }
+
+    List<String> lines = contentLines(head);
+    if (lines.isEmpty()) {
+      return byExtension != null ? byExtension : Lang.TURTLE;
+    }
+    String first = lines.getFirst();
+    if (XML_START.matcher(first).find()) {
+      return Lang.RDFXML;
+    }
+    if (first.startsWith("{") || first.startsWith("[")) {
+      return Lang.JSONLD;
+    }
+    boolean turtleExtension = Lang.TURTLE.equals(byExtension) || Lang.TRIG.equals(byExtension);
+    if (TURTLE_DIRECTIVE.matcher(first).find()) {
+      return turtleExtension ? byExtension : Lang.TURTLE;
+    }
+    if (!turtleExtension) {
+      // N-Triples is a subset of Turtle, only parse as N-Triples when every line is a triple
+      if (lines.stream().allMatch(line -> NT_TRIPLE.matcher(line).matches())) {
+        return Lang.NTRIPLES;
+      }
+      if (lines.stream().allMatch(line -> NT_TRIPLE.matcher(line).matches()
+          || NT_QUAD.matcher(line).matches())) {
+        return Lang.NQUADS;
+      }
+    }
+    // the content is not N-Triples, whatever the extension says
+    return byExtension == null || Lang.NTRIPLES.equals(byExtension)
+        || Lang.NQUADS.equals(byExtension) ? Lang.TURTLE : byExtension;
+  }
+
+  // The first complete lines of the head that are not blank or a comment
+  private static List<String> contentLines(byte[] head) {
+    String text = new String(head, StandardCharsets.UTF_8);
+    if (text.startsWith("\uFEFF")) {
+      text = text.substring(1);
+    }
+    if (head.length >= HEAD_SIZE && text.lastIndexOf('\n') >= 0) {
+      // the last line may be cut off
+      text = text.substring(0, text.lastIndexOf('\n'));
+    }
+    return text.lines()
+        .map(String::strip)
+        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+        .limit(MAX_DETECTION_LINES)
+        .toList();
+  }
+
+  private static void parseChunks(InputStream in, Lang lang, Graph graph, Filter filter,
+      RdfLoadProperties properties, String location) throws IOException {
+    int threads = Parallel.threads(properties.getParallelism());
+    // blank node labels are scoped to the document, the chunks allocate them from the same seed
+    UUID seed = UUID.randomUUID();
+    ExecutorService executor = Parallel.fixedPool(threads);
+    Deque<Future<List<Triple>>> pending = new ArrayDeque<>();
+    try {
+      byte[] chunk;
+      while ((chunk = nextChunk(in, properties.getChunkSizeBytes())) != null) {
+        byte[] source = chunk;
+        pending.add(executor.submit(() -> parseChunk(source, lang, seed, filter)));
+        // keep at most two chunks per thread in memory
+        if (pending.size() >= 2 * threads) {
+          pending.poll().get().forEach(graph::add);
+        }
+      }
+      while (!pending.isEmpty()) {
+        pending.poll().get().forEach(graph::add);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while loading " + location, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Failed loading " + location, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<Triple> parseChunk(byte[] chunk, Lang lang, UUID seed, Filter filter) {
+    List<Triple> triples = new ArrayList<>();
+    RDFParser.source(new ByteArrayInputStream(chunk))
+        .lang(lang)
+        .labelToNode(LabelToNode.createScopeByDocumentHash(seed))
+        .parse(new Sink(filter, triples::add, null));
+    return triples;
+  }
+
+  // The next chunk of about the given size, ending at a line boundary; null at the end of the input
+  private static byte[] nextChunk(InputStream in, int size) throws IOException {
+    byte[] chunk = in.readNBytes(size);
+    if (chunk.length == 0) {
+      return null;
+    }
+    if (chunk.length < size || chunk[chunk.length - 1] == '\n') {
+      return chunk;
+    }
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    line.write(chunk);
+    int b;
+    while ((b = in.read()) != -1) {
+      line.write(b);
+      if (b == '\n') {
+        break;
+      }
+    }
+    return line.toByteArray();
+  }
+
+  private static InputStream open(Path file) throws IOException {
+    InputStream in = new BufferedInputStream(Files.newInputStream(file));
+    in.mark(2);
+    boolean gzip = in.read() == 0x1f && in.read() == 0x8b;
+    in.reset();
+    return gzip ? new BufferedInputStream(new GZIPInputStream(in)) : in;
+  }
+
+  private static byte[] head(InputStream in) throws IOException {
+    in.mark(HEAD_SIZE);
+    byte[] head = in.readNBytes(HEAD_SIZE);
+    in.reset();
+    return head;
+  }
+
+  // The local file at the location, null if it is not a (readable) file
+  private static Path localFile(String location) {
+    try {
+      Path file = location.startsWith("file:") ? Path.of(URI.create(location))
+          : Path.of(location);
+      return Files.isRegularFile(file) ? file : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static void report(String location, Lang lang, long triples, long dropped, long bytes,
+      long nanos) {
+    double seconds = Math.max(nanos, 1) / 1e9;
+    if (bytes >= 0) {
+      logger.info("Loaded {} triples ({} dropped) from {} as {} in {} ms: {} triples/s, {} MB/s",
+          triples, dropped, location, lang.getLabel(), nanos / 1_000_000,
+          Math.round((triples + dropped) / seconds),
+          String.format("%.1f", bytes / seconds / (1024 * 1024)));
+    } else {
+      logger.info("Loaded {} triples ({} dropped) from {} in {} ms: {} triples/s", triples, dropped,
+          location, nanos / 1_000_000, Math.round((triples + dropped) / seconds));
+    }
+  }
+
+  // The predicates to keep, counting the kept and dropped triples
+  private static class Filter {
+
+    private final Set<Node> keep;
+    private final Set<Node> drop;
+    private final LongAdder kept = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    Filter(RdfLoadProperties properties) {
+      this.keep = properties.getKeepPredicates().stream()
+          .map(NodeFactory::createURI)
+          .collect(Collectors.toSet());
+      this.drop = properties.getDropPredicates().stream()
+          .map(NodeFactory::createURI)
+          .collect(Collectors.toSet());
+    }
+
+    boolean test(Triple triple) {
+      Node predicate = triple.getPredicate();
+      if ((keep.isEmpty() || keep.contains(predicate)) && !drop.contains(predicate)) {
+        kept.increment();
+        return true;
+      }
+      dropped.increment();
+      return false;
+    }
+  }
+
+  // Passes the triples (and the triples of quads) that pass the filter on to the consumer
+  private static class Sink extends StreamRDFBase {
+
+    private final Filter filter;
+    private final Consumer<Triple> consumer;
+    private final Graph prefixes;
+
+    Sink(Filter filter, Consumer<Triple> consumer, Graph prefixes) {
+      this.filter = filter;
+      this.consumer = consumer;
+      this.prefixes = prefixes;
+    }
+
+    @Override
+    public void triple(Triple triple) {
+      if (filter.test(triple)) {
+        consumer.accept(triple);
+      }
+    }
+
+    @Override
+    public void quad(Quad quad) {
+      triple(quad.asTriple());
+    }
+
+    @Override
+    public void prefix(String prefix, String iri) {
+      if (prefixes != null) {
+        prefixes.getPrefixMapping().setNsPrefix(prefix, iri);
+      }
+    }
+  }
+}
@@ -0,0 +1,284 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.RdfLoadProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.RDFLanguages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves and loads sets of RDF sources, e.g. an ontology split into modules.
+ *
+ * A source is a file, a directory (all RDF files below it) or a glob, or a URL. The files are parsed
+ * in parallel, each into a model of its own, and kept as named graphs (named by the URI of the file)
+ * so the provenance of every statement stays known; the pipeline works on the merge of them. Parsed
+ * files are cached as binary snapshots keyed by their content. With a persistent model store, the
+ * parsed models are kept together with the size and modification time of their file, and a file is
+ * only loaded again once it changed. A stored merge replaces the earlier merges under the same
+ * name, and the models of files that no longer exist are removed.
+ */
+public class RdfSources {
+
+  private static final Logger logger = LoggerFactory.getLogger(RdfSources.class);
+
+  private static final Pattern URL = Pattern.compile("^[A-Za-z][A-Za-z0-9+.-]+:");
+  private static final Property FINGERPRINT = ModelFactory.createDefaultModel()
+      .createProperty("urn:oddtoolkit:fingerprint");
+
+  private RdfSources() {
+  }
+
+  /**
+   * Resolve the configured sources to the files (and URLs) to load, in the configured order and
+   * each only once. The files of a directory or glob are sorted by path.
+   */
+  public static List<String> resolve(List<String> sources) {
+    Set<String> locations = new LinkedHashSet<>();
+    for (String source : sources) {
+      if (URL.matcher(source).find() && !source.startsWith("file:")) {
+        locations.add(source);
+      } else if (source.chars().anyMatch(c -> "*?[{".indexOf(c) >= 0)) {
+        locations.addAll(glob(source));
+      } else if (Files.isDirectory(Path.of(source))) {
+        locations.addAll(walk(Path.of(source), RdfSources::isRdfFile));
+      } else {
+        locations.add(source);
+      }
+    }
+    return new ArrayList<>(locations);
+  }
+
+  /**
+   * Load every location into a named graph of a new dataset, in parallel.
+   */
+  public static Dataset load(List<String> locations, RdfLoadProperties properties,
+      ModelStore store) {
+    Dataset dataset = DatasetFactory.createGeneral();
+    ParsedModelCache cache = cache(properties);
+    if (locations.size() == 1) {
+      // nothing to parallelize, a persistent store can be loaded without a copy on the heap
+      String location = locations.getFirst();
+      dataset.addNamedModel(graphName(location),
+          loadSource(location, properties, store, cache, true));
+      removeDeletedSources(store);
+      return dataset;
+    }
+
+    ExecutorService executor = Parallel.fixedPool(
+        Math.min(Parallel.threads(properties.getParallelism()), locations.size()));
+    try {
+      List<Future<Model>> futures = new ArrayList<>();
+      for (String location : locations) {
+        futures.add(executor.submit(() -> loadSource(location, properties, store, cache,
+            false)));
+      }
+      for (int i = 0; i < locations.size(); i++) {
+        dataset.addNamedModel(graphName(locations.get(i)), futures.get(i).get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while loading " + locations, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Failed loading " + locations, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    removeDeletedSources(store);
+    return dataset;
+  }
+
+  /**
+   * Get the model with the statements of all named graphs of the dataset. A single graph is used as
+   * is, several graphs are merged into the model stored under the given name.
+   */
+  public static Model merge(Dataset sources, String name, ModelStore store) {
+    List<String> names = new ArrayList<>();
+    sources.listNames().forEachRemaining(names::add);
+    names.sort(null);
+    if (names.size() == 1) {
+      return sources.getNamedModel(names.getFirst());
+    }
+    long start = System.nanoTime();
+    String mergedName = name + ":" + String.join("|", names);
+    Model merged = store.load(mergedName, graph -> {
+      for (String graphName : names) {
+        Model model = sources.getNamedModel(graphName);
+        GraphUtil.addInto(graph, model.getGraph());
+        model.getNsPrefixMap().forEach(graph.getPrefixMapping()::setNsPrefix);
+      }
+    });
+    logger.info("Merged {} sources into {} statements in {} ms", names.size(), merged.size(),
+        (System.nanoTime() - start) / 1_000_000);
+    // a merge of other sources is not used again
+    for (String stored : store.names(name + ":")) {
+      if (!stored.equals(mergedName)) {
+        store.remove(stored);
+      }
+    }
+    return merged;
+  }
+
+  private static Model loadSource(String location, RdfLoadProperties properties, ModelStore store,
+      ParsedModelCache cache, boolean streaming) {
+    Path file = URL.matcher(location).find() ? null : Path.of(location);
+    String name = "source:" + graphName(location);
+    String fingerprint = null;
+    if (store.isPersistent() && file != null && Files.isRegularFile(file)) {
+      fingerprint = fingerprint(file);
+      Model stamp = store.get("fingerprint:" + graphName(location));
+      Model stored = stamp != null && stamp.contains(null, FINGERPRINT, fingerprint)
+          ? store.get(name) : null;
+      if (stored != null) {
+        logger.info("Reusing the parsed model of unchanged {}", location);
+        return stored;
+      }
+    }
+
+    Model model;
+    boolean cacheable = cache != null && file != null && Files.isRegularFile(file);
+    Model snapshot = cacheable ? cache.get(file, options(properties)) : null;
+    if (snapshot != null) {
+      logger.info("Loaded {} statements of {} from its snapshot", snapshot.size(), location);
+      model = store.put(name, snapshot);
+    } else {
+      model = streaming
+          ? store.load(name, graph -> RdfLoader.load(location, properties, graph))
+          : store.put(name, RdfLoader.load(location, properties));
+      if (cacheable) {
+        cache.put(file, options(properties), model);
+      }
+    }
+    if (fingerprint != null) {
+      Model stamp = ModelFactory.createDefaultModel();
+      Resource source = stamp.createResource(graphName(location));
+      stamp.add(source, FINGERPRINT, fingerprint);
+      store.put("fingerprint:" + graphName(location), stamp);
+    }
+    return model;
+  }
+
+  // Remove the stored models of files that were deleted (or moved)
+  private static void removeDeletedSources(ModelStore store) {
+    for (String name : store.names("source:file:")) {
+      String uri = name.substring("source:".length());
+      if (!Files.exists(Path.of(URI.create(uri)))) {
+        store.remove(name);
+        store.remove("fingerprint:" + uri);
+        logger.debug("Removed stored model of deleted source {}", uri);
+      }
+    }
+  }
+
+  private static ParsedModelCache cache(RdfLoadProperties properties) {
+    if (!properties.isCacheEnabled() || properties.getCacheDir() == null
+        || properties.getCacheDir().isBlank()) {
+      return null;
+    }
+    try {
+      return new ParsedModelCache(Path.of(properties.getCacheDir()),
+          RdfCacheFile.resolveLang(properties.getCacheFormat()), properties.getCacheMaxEntries(),
+          properties.getCacheMaxBytes());
+    } catch (IOException e) {
+      logger.warn("Unable to create cache directory {}: {}", properties.getCacheDir(),
+          e.getMessage());
+      return null;
+    }
+  }
+
+  // The load options that change the parsed model
+  private static String options(RdfLoadProperties properties) {
+    return "format=" + properties.getFormat()
+        + "|keep=" + properties.getKeepPredicates().stream().sorted().toList()
+        + "|drop=" + properties.getDropPredicates().stream().sorted().toList();
+  }
+
+  // Changes whenever the file is written (or replaced)
+  private static String fingerprint(Path file) {
+    try {
+      return Files.size(file) + "-" + Files.getLastModifiedTime(file).toMillis();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read " + file, e);
+    }
+  }
+
+  private static String graphName(String location) {
+    if (URL.matcher(location).find()) {
+      return location;
+    }
+    return Path.of(location).toAbsolutePath().normalize().toUri().toString();
+  }
+
+  private static List<String> glob(String pattern) {
+    String normalized = pattern.replace('\\', '/');
+    int wildcard = 0;
+    while ("*?[{".indexOf(normalized.charAt(wildcard)) < 0) {
+      wildcard++;
+    }
+    int separator = normalized.lastIndexOf('/', wildcard);
+    Path base = separator < 0 ? Path.of(".") : Path.of(normalized.substring(0, separator + 1));
+    String relative = normalized.substring(separator + 1);
+    PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + relative);
+    // "**/" also matches the files directly in the base directory
+    PathMatcher topLevel = relative.startsWith("**/")
+        ? FileSystems.getDefault().getPathMatcher("glob:" + relative.substring(3)) : null;
+    if (!Files.isDirectory(base)) {
+      logger.warn("No files match {}: {} is not a directory", pattern, base);
+      return List.of();
+    }
+    List<String> files = walk(base, path -> {
+      Path rel = base.relativize(path);
+      return matcher.matches(rel) || topLevel != null && topLevel.matches(rel);
+    });
+    if (files.isEmpty()) {
+      logger.warn("No files match {}", pattern);
+    }
+    return files;
+  }
+
+  private static List<String> walk(Path directory, Predicate<Path> filter) {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      return paths.filter(Files::isRegularFile)
+          .filter(filter)
+          .map(Path::normalize)
+          .map(Path::toString)
+          .sorted()
+          .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to list " + directory, e);
+    }
+  }
+
+  private static boolean isRdfFile(Path path) {
+    String name = path.getFileName().toString();
+    if (name.endsWith(".gz")) {
+      name = name.substring(0, name.length() - 3);
+    }
+    return RDFLanguages.filenameToLang(name) != null;
+  }
+}
@@ -0,0 +1,209 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+/**
+ * Extracts the property restrictions of classes in a single pass over a graph.
+ *
+ * Instead of navigating from every class to its restrictions and asking each restriction for its
+ * cardinalities and ranges, the graph is scanned once and the statements that matter are grouped by
+ * subject. The class - restriction - property tuples are then joined in memory into flat records.
+ * A full scan lists the statements of a subject in the same order as a lookup on that subject does
+ * (for in-memory graphs), so the records come out in the order of the per-resource navigation.
+ */
+public class RestrictionScanner {
+
+  private static final Map<Node, Slot> PREDICATES = Map.of(
+      RDFS.subClassOf.asNode(), Slot.SUB_CLASS_OF,
+      RDF.type.asNode(), Slot.TYPE,
+      OWL2.onProperty.asNode(), Slot.ON_PROPERTY,
+      OWL2.minCardinality.asNode(), Slot.MIN_CARDINALITY,
+      OWL2.maxCardinality.asNode(), Slot.MAX_CARDINALITY,
+      OWL2.cardinality.asNode(), Slot.CARDINALITY,
+      OWL2.someValuesFrom.asNode(), Slot.SOME_VALUES_FROM,
+      OWL2.allValuesFrom.asNode(), Slot.ALL_VALUES_FROM,
+      RDFS.label.asNode(), Slot.LABEL,
+      RDFS.comment.asNode(), Slot.COMMENT);
+
+  private static final Set<Node> PROPERTY_TYPES = Set.of(
+      RDF.Property.asNode(), OWL2.ObjectProperty.asNode(), OWL2.DatatypeProperty.asNode());
+
+  private RestrictionScanner() {
+  }
+
+  /**
+   * A property restricted on a class.
+   *
+   * @param restriction        the owl:Restriction
+   * @param property           the property it restricts (owl:onProperty)
+   * @param label              the label of the property
+   * @param comment            the comment of the property, or else of the restriction
+   * @param min                the minimum cardinality, null if unrestricted
+   * @param max                the maximum cardinality, null if unrestricted
+   * @param range              the someValuesFrom classes, or else the allValuesFrom classes
+   * @param propertyDefinition whether the restriction is (also) typed as a property, in which case
+   *                           its own definition (URI, rdfs:range) applies as well
+   */
+  public record PropertyRestriction(Resource restriction, Resource property, String label,
+                                    String comment, Integer min, Integer max, List<String> range,
+                                    boolean propertyDefinition) {
+
+  }
+
+  /**
+   * Get the restricted properties of the given classes, in the order of their rdfs:subClassOf and
+   * owl:onProperty statements.
+   */
+  public static Map<Resource, List<PropertyRestriction>> scan(Model model,
+      Collection<? extends Resource> classes) {
+    Scan scan = new Scan(classes);
+    ExtendedIterator<Triple> it = model.getGraph().find();
+    try {
+      while (it.hasNext()) {
+        scan.add(it.next());
+      }
+    } finally {
+      it.close();
+    }
+
+    Map<Resource, List<PropertyRestriction>> result = new LinkedHashMap<>();
+    for (Resource classResource : classes) {
+      List<PropertyRestriction> restrictions = new ArrayList<>();
+      for (Node superClass : scan.values(Slot.SUB_CLASS_OF, classResource.asNode())) {
+        if (!scan.restrictions.contains(superClass)) {
+          continue;
+        }
+        for (Node property : scan.values(Slot.ON_PROPERTY, superClass)) {
+          if (property.isURI()) {
+            restrictions.add(restriction(model, scan, superClass, property));
+          }
+        }
+      }
+      result.put(classResource, restrictions);
+    }
+    return result;
+  }
+
+  private static PropertyRestriction restriction(Model model, Scan scan, Node restriction,
+      Node property) {
+    String comment = literal(scan.first(Slot.COMMENT, property));
+    if (comment == null) {
+      comment = literal(scan.first(Slot.COMMENT, restriction));
+    }
+    Integer min = integer(model, scan.first(Slot.MIN_CARDINALITY, restriction));
+    Integer max = integer(model, scan.first(Slot.MAX_CARDINALITY, restriction));
+    Integer cardinality = integer(model, scan.first(Slot.CARDINALITY, restriction));
+    if (cardinality != null) {
+      min = cardinality;
+      max = cardinality;
+    }
+
+    List<String> range = new ArrayList<>();
+    List<Node> someValuesFrom = scan.values(Slot.SOME_VALUES_FROM, restriction);
+    if (!someValuesFrom.isEmpty()) {
+      for (Node value : someValuesFrom) {
+        if (!value.isURI()) {
+          throw new IllegalArgumentException(
+              "Invalid range for property: " + property.getURI()
+                  + ". Range must be a resource with a valid URI. Found: " + model.asRDFNode(value));
+        }
+        range.add(value.getURI());
+      }
+    } else {
+      for (Node value : scan.values(Slot.ALL_VALUES_FROM, restriction)) {
+        if (!value.isLiteral()) {
+          range.add(value.isURI() ? value.getURI() : null);
+        }
+      }
+    }
+    return new PropertyRestriction(model.wrapAsResource(restriction),
+        model.wrapAsResource(property), literal(scan.first(Slot.LABEL, property)), comment, min,
+        max, range, scan.propertyDefinitions.contains(restriction));
+  }
+
+  // Only the first value counts, like Resource.getProperty
+  private static String literal(Node node) {
+    return node != null && node.isLiteral() ? node.getLiteralLexicalForm() : null;
+  }
+
+  private static Integer integer(Model model, Node node) {
+    if (node == null) {
+      return null;
+    }
+    return model.asRDFNode(node).asLiteral().getInt();
+  }
+
+  private enum Slot {
+    SUB_CLASS_OF, TYPE, ON_PROPERTY, MIN_CARDINALITY, MAX_CARDINALITY, CARDINALITY,
+    SOME_VALUES_FROM, ALL_VALUES_FROM, LABEL, COMMENT
+  }
+
+  // The statements of the scan grouped by predicate and subject
+  private static class Scan {
+
+    private final Set<Node> classes = new HashSet<>();
+    private final Set<Node> restrictions = new HashSet<>();
+    private final Set<Node> propertyDefinitions = new HashSet<>();
+    private final Map<Slot, Map<Node, List<Node>>> values = new HashMap<>();
+
+    Scan(Collection<? extends Resource> classes) {
+      classes.forEach(classResource -> this.classes.add(classResource.asNode()));
+    }
+
+    void add(Triple triple) {
+      Slot slot = PREDICATES.get(triple.getPredicate());
+      if (slot == null) {
+        return;
+      }
+      Node subject = triple.getSubject();
+      Node object = triple.getObject();
+      switch (slot) {
+        case TYPE -> {
+          if (object.equals(OWL2.Restriction.asNode())) {
+            restrictions.add(subject);
+          } else if (PROPERTY_TYPES.contains(object)) {
+            propertyDefinitions.add(subject);
+          }
+        }
+        case SUB_CLASS_OF -> {
+          if (classes.contains(subject)) {
+            add(slot, subject, object);
+          }
+        }
+        default -> add(slot, subject, object);
+      }
+    }
+
+    private void add(Slot slot, Node subject, Node object) {
+      values.computeIfAbsent(slot, s -> new HashMap<>())
+          .computeIfAbsent(subject, s -> new ArrayList<>(1))
+          .add(object);
+    }
+
+    List<Node> values(Slot slot, Node subject) {
+      Map<Node, List<Node>> bySubject = values.get(slot);
+      List<Node> nodes = bySubject != null ? bySubject.get(subject) : null;
+      return nodes != null ? nodes : List.of();
+    }
+
+    Node first(Slot slot, Node subject) {
+      List<Node> nodes = values(slot, subject);
+      return nodes.isEmpty() ? null : nodes.getFirst();
+    }
+  }
+}
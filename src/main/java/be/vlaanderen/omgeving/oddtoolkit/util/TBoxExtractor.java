@@ -0,0 +1,74 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+/**
+ * Extracts the schema (TBox) part of a model: classes, properties and restrictions.
+ *
+ * A resource is part of the schema when it is typed as a class, property, restriction or ontology,
+ * or when it is the subject of a schema axiom (subClassOf, domain, inverseOf, ...). All statements
+ * about such a resource are copied, following blank nodes so restrictions and RDF lists (unionOf,
+ * intersectionOf, ...) come along. Instance data (individuals) is left out.
+ */
+public class TBoxExtractor {
+
+  private static final List<Resource> SCHEMA_TYPES = List.of(
+      OWL2.Ontology, OWL2.Class, RDFS.Class, RDFS.Datatype, OWL2.Restriction,
+      RDF.Property, OWL2.ObjectProperty, OWL2.DatatypeProperty, OWL2.AnnotationProperty,
+      OWL2.FunctionalProperty, OWL2.InverseFunctionalProperty, OWL2.TransitiveProperty,
+      OWL2.SymmetricProperty, OWL2.AsymmetricProperty, OWL2.ReflexiveProperty,
+      OWL2.IrreflexiveProperty, OWL2.AllDisjointClasses, OWL2.AllDisjointProperties);
+
+  private static final List<Property> SCHEMA_PREDICATES = List.of(
+      RDFS.subClassOf, RDFS.subPropertyOf, RDFS.domain, RDFS.range,
+      OWL2.inverseOf, OWL2.equivalentClass, OWL2.equivalentProperty, OWL2.disjointWith,
+      OWL2.propertyDisjointWith, OWL2.propertyChainAxiom, OWL2.onProperty, OWL2.someValuesFrom,
+      OWL2.allValuesFrom, OWL2.hasValue, OWL2.unionOf, OWL2.intersectionOf, OWL2.complementOf);
+
+  private TBoxExtractor() {
+  }
+
+  /**
+   * Copy the schema statements of the source model into a new model.
+   */
+  public static Model extract(Model source) {
+    Set<Resource> schema = new HashSet<>();
+    for (Resource type : SCHEMA_TYPES) {
+      source.listSubjectsWithProperty(RDF.type, type).forEachRemaining(schema::add);
+    }
+    for (Property predicate : SCHEMA_PREDICATES) {
+      source.listSubjectsWithProperty(predicate).forEachRemaining(schema::add);
+    }
+
+    Model tbox = ModelFactory.createDefaultModel();
+    tbox.setNsPrefixes(source.getNsPrefixMap());
+    Set<Resource> visited = new HashSet<>();
+    Deque<Resource> queue = new ArrayDeque<>(schema);
+    while (!queue.isEmpty()) {
+      Resource subject = queue.poll();
+      if (!visited.add(subject)) {
+        continue;
+      }
+      source.listStatements(subject, null, (RDFNode) null).forEachRemaining(statement -> {
+        tbox.add(statement);
+        // restrictions and lists are blank nodes that only exist as part of the axiom
+        if (statement.getObject().isAnon()) {
+          queue.add(statement.getObject().asResource());
+        }
+      });
+    }
+    return tbox;
+  }
+}
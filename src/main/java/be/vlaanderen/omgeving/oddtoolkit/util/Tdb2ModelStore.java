@@ -0,0 +1,274 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Capabilities;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.shared.impl.PrefixMappingImpl;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Model store backed by an on-disk, memory-mapped TDB2 dataset; every model is a named graph.
+ *
+ * TDB2 is only accessed in transactions. The models handed out run every operation in a
+ * transaction of its own (unless the calling thread is already in one), so the rest of the pipeline
+ * can use them like any other model, from any thread. The iterators of a query stream from the
+ * store: they keep the read transaction of their thread open until they are exhausted or closed, so
+ * the heap only holds the working set instead of the whole graph. Like any Jena iterator, an
+ * iterator that is not read to the end must be closed. The prefixes of a model are read once, when
+ * the model is handed out. The time every model was stored is kept in a graph of its own.
+ */
+public class Tdb2ModelStore implements ModelStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(Tdb2ModelStore.class);
+  private static final String GRAPH_PREFIX = "urn:oddtoolkit:model:";
+  private static final Node STORED_GRAPH = NodeFactory.createURI("urn:oddtoolkit:stored");
+  private static final Node STORED_AT = NodeFactory.createURI("urn:oddtoolkit:storedAt");
+
+  private final Dataset dataset;
+  private final DatasetGraph datasetGraph;
+  // number of iterators holding the read transaction of the thread open
+  private final ThreadLocal<int[]> openReads = ThreadLocal.withInitial(() -> new int[1]);
+
+  public Tdb2ModelStore(Path directory) {
+    this.dataset = TDB2Factory.connectDataset(directory.toString());
+    this.datasetGraph = dataset.asDatasetGraph();
+    logger.info("Using TDB2 model store in {}", directory);
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  @Override
+  public Model get(String name) {
+    Node graphName = graphName(name);
+    if (!Txn.calculateRead(datasetGraph, () -> datasetGraph.containsGraph(graphName))) {
+      return null;
+    }
+    return model(graphName);
+  }
+
+  @Override
+  public long storedAt(String name) {
+    Node graphName = graphName(name);
+    return Txn.calculateRead(datasetGraph, () -> {
+      if (!datasetGraph.containsGraph(graphName)) {
+        return -1L;
+      }
+      ExtendedIterator<Triple> it = datasetGraph.getGraph(STORED_GRAPH)
+          .find(graphName, STORED_AT, Node.ANY);
+      try {
+        return it.hasNext() ? ((Number) it.next().getObject().getLiteralValue()).longValue() : -1L;
+      } finally {
+        it.close();
+      }
+    });
+  }
+
+  @Override
+  public Model load(String name, Consumer<Graph> loader) {
+    Node graphName = graphName(name);
+    long start = System.nanoTime();
+    Txn.executeWrite(datasetGraph, () -> {
+      Graph graph = datasetGraph.getGraph(graphName);
+      graph.clear();
+      loader.accept(graph);
+      Graph stored = datasetGraph.getGraph(STORED_GRAPH);
+      stored.remove(graphName, STORED_AT, Node.ANY);
+      stored.add(Triple.create(graphName, STORED_AT,
+          NodeFactory.createLiteralByValue(System.currentTimeMillis(), XSDDatatype.XSDlong)));
+    });
+    logger.debug("Stored model {} in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+    return model(graphName);
+  }
+
+  @Override
+  public void remove(String name) {
+    Node graphName = graphName(name);
+    Txn.executeWrite(datasetGraph, () -> {
+      datasetGraph.removeGraph(graphName);
+      datasetGraph.getGraph(STORED_GRAPH).remove(graphName, STORED_AT, Node.ANY);
+    });
+    logger.debug("Removed model {}", name);
+  }
+
+  @Override
+  public List<String> names(String prefix) {
+    return Txn.calculateRead(datasetGraph, () -> {
+      List<String> names = new ArrayList<>();
+      datasetGraph.listGraphNodes().forEachRemaining(node -> {
+        if (node.isURI() && node.getURI().startsWith(GRAPH_PREFIX)) {
+          String name = URLDecoder.decode(node.getURI().substring(GRAPH_PREFIX.length()),
+              StandardCharsets.UTF_8);
+          if (name.startsWith(prefix)) {
+            names.add(name);
+          }
+        }
+      });
+      return names;
+    });
+  }
+
+  @Override
+  public void close() {
+    dataset.close();
+  }
+
+  private Model model(Node graphName) {
+    PrefixMapping prefixes = Txn.calculateRead(datasetGraph, () -> new PrefixMappingImpl()
+        .setNsPrefixes(datasetGraph.getGraph(graphName).getPrefixMapping()));
+    return ModelFactory.createModelForGraph(
+        new TxnGraph(datasetGraph.getGraph(graphName), prefixes));
+  }
+
+  private static Node graphName(String name) {
+    return NodeFactory.createURI(GRAPH_PREFIX + URLEncoder.encode(name, StandardCharsets.UTF_8));
+  }
+
+  // Graph view running every operation in a transaction, unless the thread is already in one
+  private class TxnGraph extends GraphBase {
+
+    private final Graph base;
+    private final PrefixMapping prefixes;
+
+    TxnGraph(Graph base, PrefixMapping prefixes) {
+      this.base = base;
+      this.prefixes = prefixes;
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple triple) {
+      int[] reads = openReads.get();
+      if (reads[0] == 0 && datasetGraph.isInTransaction()) {
+        // within a transaction of the caller
+        return base.find(triple);
+      }
+      if (reads[0] == 0) {
+        datasetGraph.begin(TxnType.READ);
+      }
+      reads[0]++;
+      try {
+        return new ReadIterator(base.find(triple));
+      } catch (RuntimeException e) {
+        endRead();
+        throw e;
+      }
+    }
+
+    @Override
+    protected boolean graphBaseContains(Triple triple) {
+      return Txn.calculateRead(datasetGraph, () -> base.contains(triple));
+    }
+
+    @Override
+    protected int graphBaseSize() {
+      return Txn.calculateRead(datasetGraph, base::size);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return Txn.calculateRead(datasetGraph, base::isEmpty);
+    }
+
+    @Override
+    public void performAdd(Triple triple) {
+      Txn.executeWrite(datasetGraph, () -> base.add(triple));
+    }
+
+    @Override
+    public void performDelete(Triple triple) {
+      Txn.executeWrite(datasetGraph, () -> base.delete(triple));
+    }
+
+    @Override
+    public void remove(Node s, Node p, Node o) {
+      Txn.executeWrite(datasetGraph, () -> base.remove(s, p, o));
+    }
+
+    @Override
+    public void clear() {
+      Txn.executeWrite(datasetGraph, base::clear);
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+      return base.getCapabilities();
+    }
+
+    @Override
+    protected PrefixMapping createPrefixMapping() {
+      return prefixes;
+    }
+  }
+
+  // Iterator holding the read transaction of its thread open until it is exhausted or closed
+  private class ReadIterator extends NiceIterator<Triple> {
+
+    private final ExtendedIterator<Triple> base;
+    private boolean open = true;
+
+    ReadIterator(ExtendedIterator<Triple> base) {
+      this.base = base;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (!open) {
+        return false;
+      }
+      if (base.hasNext()) {
+        return true;
+      }
+      close();
+      return false;
+    }
+
+    @Override
+    public Triple next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return base.next();
+    }
+
+    @Override
+    public void close() {
+      if (open) {
+        open = false;
+        base.close();
+        endRead();
+      }
+    }
+  }
+
+  private void endRead() {
+    int[] reads = openReads.get();
+    if (--reads[0] == 0) {
+      datasetGraph.end();
+    }
+  }
+}
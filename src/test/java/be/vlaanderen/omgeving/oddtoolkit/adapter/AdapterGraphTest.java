@@ -0,0 +1,77 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class AdapterGraphTest {
+
+  static class NoopAdapter extends AbstractAdapter<OntologyInfo> {
+    NoopAdapter() {
+      super(OntologyInfo.class);
+    }
+
+    @Override
+    public OntologyInfo adapt(OntologyInfo info) {
+      return info;
+    }
+  }
+
+  static class Load extends NoopAdapter {
+  }
+
+  @AdapterDependency(Load.class)
+  static class Extract extends NoopAdapter {
+  }
+
+  @AdapterDependency(Extract.class)
+  static class Enrich extends NoopAdapter {
+  }
+
+  @AdapterDependency(Load.class)
+  static class Other extends NoopAdapter {
+  }
+
+  @AdapterDependency(CycleB.class)
+  static class CycleA extends NoopAdapter {
+  }
+
+  @AdapterDependency(CycleA.class)
+  static class CycleB extends NoopAdapter {
+  }
+
+  @Test
+  void testTopologicalOrder() {
+    Load load = new Load();
+    Extract extract = new Extract();
+    Enrich enrich = new Enrich();
+    Other other = new Other();
+
+    AdapterGraph graph = AdapterGraph.of(List.of(enrich, other, extract, load));
+
+    assertThat(graph.getOrder()).containsExactly(load, extract, other, enrich);
+    assertThat(graph.getDependencies(enrich)).containsExactly(extract);
+    assertThat(graph.getDependencies(other)).containsExactly(load);
+  }
+
+  @Test
+  void testUnselectedDependenciesAreFollowed() {
+    Load load = new Load();
+    Enrich enrich = new Enrich();
+
+    AdapterGraph graph = AdapterGraph.of(List.of(enrich, load));
+
+    assertThat(graph.getOrder()).containsExactly(load, enrich);
+    assertThat(graph.getDependencies(enrich)).containsExactly(load);
+  }
+
+  @Test
+  void testCycleIsRejected() {
+    assertThatThrownBy(() -> AdapterGraph.of(List.of(new CycleA(), new CycleB())))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("CycleA -> CycleB -> CycleA");
+  }
+}
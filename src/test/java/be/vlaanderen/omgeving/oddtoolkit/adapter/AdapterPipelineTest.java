@@ -0,0 +1,98 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.AdapterPipelineProperties;
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class AdapterPipelineTest {
+
+  static class CountingAdapter extends AbstractAdapter<OntologyInfo> {
+    final AtomicInteger count = new AtomicInteger();
+
+    CountingAdapter() {
+      super(OntologyInfo.class);
+    }
+
+    @Override
+    public OntologyInfo adapt(OntologyInfo info) {
+      count.incrementAndGet();
+      return info;
+    }
+  }
+
+  static class RecordingAdapter extends AbstractAdapter<OntologyInfo> {
+    final List<String> log;
+
+    RecordingAdapter(List<String> log) {
+      super(OntologyInfo.class);
+      this.log = log;
+    }
+
+    @Override
+    public OntologyInfo adapt(OntologyInfo info) {
+      log.add(getClass().getSimpleName());
+      return info;
+    }
+  }
+
+  static class First extends RecordingAdapter {
+    First(List<String> log) {
+      super(log);
+    }
+  }
+
+  @AdapterDependency(First.class)
+  static class Second extends RecordingAdapter {
+    Second(List<String> log) {
+      super(log);
+    }
+  }
+
+  @AdapterDependency(Second.class)
+  static class Third extends RecordingAdapter {
+    Third(List<String> log) {
+      super(log);
+    }
+  }
+
+  @Test
+  void testAdaptersRunOncePerInfo() {
+    AdapterPipeline pipeline = new AdapterPipeline();
+    CountingAdapter adapter = new CountingAdapter();
+    OntologyInfo info = new OntologyInfo(new OntologyConfiguration());
+    OntologyInfo other = new OntologyInfo(new OntologyConfiguration());
+
+    pipeline.run(List.of(adapter), info);
+    pipeline.run(List.of(adapter), info);
+    assertThat(adapter.count.get()).isEqualTo(1);
+
+    pipeline.run(List.of(adapter), other);
+    assertThat(adapter.count.get()).isEqualTo(2);
+
+    pipeline.invalidate(info);
+    pipeline.run(List.of(adapter), info, other);
+    assertThat(adapter.count.get()).isEqualTo(3);
+  }
+
+  @Test
+  void testParallelRunRespectsDependencies() {
+    AdapterPipelineProperties properties = new AdapterPipelineProperties();
+    properties.setParallel(true);
+    AdapterPipeline pipeline = new AdapterPipeline(properties);
+    List<String> log = Collections.synchronizedList(new ArrayList<>());
+    CountingAdapter independent = new CountingAdapter();
+
+    pipeline.run(List.of(new Third(log), independent, new Second(log), new First(log)),
+        new OntologyInfo(new OntologyConfiguration()));
+
+    assertThat(log).containsExactly("First", "Second", "Third");
+    assertThat(independent.count.get()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,121 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.vlaanderen.omgeving.oddtoolkit.adapter.OntologyClassExtractAdapter.ClassExtractProperties;
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import be.vlaanderen.omgeving.oddtoolkit.model.ClassInfo;
+import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import be.vlaanderen.omgeving.oddtoolkit.model.Scope;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelSnapshot;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+
+public class OntologyClassExtractAdapterTest {
+
+  private static final int CLASSES = 40;
+
+  @Test
+  void testParallelMatchesSequentialOnReadSafeModel() {
+    Model base = ontology();
+    Model inferred = ModelSnapshot.of(ModelFactory.createRDFSModel(base));
+
+    List<String> sequential = describe(extract(base, inferred, false));
+    List<String> parallel = describe(extract(base, inferred, true));
+
+    assertThat(parallel).isEqualTo(sequential);
+    // superclasses that are not declared are created with the scope of the first subclass
+    assertThat(sequential).contains("http://example.org/ns#Group0 ONTOLOGY super=[]");
+    assertThat(sequential).contains("http://example.org/external#Thing0 EXTERNAL super=[]");
+  }
+
+  @Test
+  void testParallelSnapshotsInferenceModel() {
+    Model base = ontology();
+    Model inferred = ModelFactory.createRDFSModel(base);
+
+    List<String> sequential = describe(extract(base, inferred, false));
+    OntologyInfo info = extract(base, inferred, true);
+
+    // the snapshot can list statements in another order, the superclasses are the same
+    assertThat(sortSuperClasses(describe(info)))
+        .containsExactlyInAnyOrderElementsOf(sortSuperClasses(sequential));
+    // classes created from the snapshot are bound to the inference model
+    assertThat(info.getClassByUri("http://example.org/external#Thing0").getResource().getModel())
+        .isSameAs(inferred);
+  }
+
+  @Test
+  void testSuperClassesAreCanonical() {
+    Model base = ontology();
+    for (boolean parallel : List.of(false, true)) {
+      OntologyInfo info = extract(base, ModelFactory.createRDFSModel(base), parallel);
+
+      for (ClassInfo classInfo : info.getClasses()) {
+        for (ClassInfo superClass : classInfo.getSuperClasses()) {
+          assertThat(superClass).isSameAs(info.getClassByUri(superClass.getUri()));
+        }
+      }
+      ClassInfo class0 = info.getClassByUri("http://example.org/ns#Class0");
+      assertThat(class0.isSubClassOf("http://example.org/external#Thing0")).isTrue();
+      assertThat(info.getClassByUri("http://example.org/ns#Group0").getScope())
+          .isEqualTo(Scope.ONTOLOGY);
+    }
+  }
+
+  private static OntologyInfo extract(Model base, Model inferred, boolean parallel) {
+    OntologyInfo info = new OntologyInfo(new OntologyConfiguration());
+    info.setModel(base);
+    info.setInferredModel(inferred);
+    ClassExtractProperties properties = new ClassExtractProperties();
+    properties.setParallel(parallel);
+    properties.setParallelism(4);
+    new OntologyClassExtractAdapter(properties).adapt(info);
+    return info;
+  }
+
+  private static List<String> describe(OntologyInfo info) {
+    List<String> lines = new ArrayList<>();
+    for (ClassInfo classInfo : info.getClasses()) {
+      lines.add(classInfo.getUri() + " " + classInfo.getScope() + " super="
+          + classInfo.getSuperClasses().stream().map(ClassInfo::getUri).toList());
+    }
+    return lines;
+  }
+
+  private static List<String> sortSuperClasses(List<String> lines) {
+    return lines.stream().map(line -> {
+      int start = line.indexOf("super=[") + 7;
+      List<String> superClasses = new ArrayList<>(
+          List.of(line.substring(start, line.length() - 1).split(", ")));
+      superClasses.sort(null);
+      return line.substring(0, start) + superClasses + "]";
+    }).toList();
+  }
+
+  private static Model ontology() {
+    StringBuilder ttl = new StringBuilder("""
+        @prefix owl: <http://www.w3.org/2002/07/owl#> .
+        @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+        @prefix ex: <http://example.org/ns#> .
+        @prefix ext: <http://example.org/external#> .
+        """);
+    // Group and Thing are referenced as superclass but not declared as owl:Class
+    for (int i = 0; i < CLASSES; i++) {
+      ttl.append("ex:Class").append(i).append(" a owl:Class ; rdfs:subClassOf ex:Group")
+          .append(i % 3).append(" , ext:Thing").append(i % 4).append(" , [ a owl:Restriction ;")
+          .append(" owl:onProperty ex:name ; owl:maxCardinality 1 ] .\n");
+      if (i > 0) {
+        ttl.append("ex:Class").append(i).append(" rdfs:subClassOf ex:Class").append(i - 1)
+            .append(" .\n");
+      }
+    }
+    Model model = ModelFactory.createDefaultModel();
+    model.read(new StringReader(ttl.toString()), null, "TURTLE");
+    return model;
+  }
+}
@@ -0,0 +1,72 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compares owl:imports discovery by full statement scan against the indexed predicate lookup.
+ *
+ * Run with {@code mvn test -Dtest=OntologyExtractExternalAdapterBenchmark -Doddtoolkit.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "oddtoolkit.benchmark", matches = "true")
+public class OntologyExtractExternalAdapterBenchmark {
+
+  private static final int TRIPLES = 2_000_000;
+  private static final int IMPORTS = 20;
+  private static final int ITERATIONS = 5;
+
+  @Test
+  void benchmarkImportDiscovery() {
+    Model model = syntheticModel();
+
+    List<Statement> scanned = measure("full scan", () -> model.listStatements().toList().stream()
+        .filter(statement -> statement.getPredicate().equals(OWL2.imports))
+        .toList());
+    List<Statement> indexed = measure("indexed lookup",
+        () -> OntologyExtractExternalAdapter.listImports(model));
+
+    assertThat(indexed).containsExactlyInAnyOrderElementsOf(scanned).hasSize(IMPORTS);
+  }
+
+  private static Model syntheticModel() {
+    Model model = ModelFactory.createDefaultModel();
+    Property property = model.createProperty("http://example.org/p");
+    var root = model.createResource("http://example.org/root");
+    for (int i = 0; i < IMPORTS; i++) {
+      root.addProperty(OWL2.imports, model.createResource("http://example.org/import/" + i));
+    }
+    for (int i = 0; model.size() < TRIPLES; i++) {
+      var resource = model.createResource("http://example.org/r/" + i);
+      resource.addProperty(property, model.createResource("http://example.org/r/" + (i + 1)));
+      resource.addProperty(RDFS.label, "resource " + i);
+    }
+    return model;
+  }
+
+  private static <T> T measure(String name, Supplier<T> task) {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().threadId();
+    T result = task.get(); // warm-up
+    long start = System.nanoTime();
+    long allocated = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < ITERATIONS; i++) {
+      result = task.get();
+    }
+    long elapsed = System.nanoTime() - start;
+    allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+    System.out.printf("%-16s %10.3f ms/op %14d bytes/op%n", name,
+        elapsed / 1_000_000.0 / ITERATIONS, allocated / ITERATIONS);
+    return result;
+  }
+}
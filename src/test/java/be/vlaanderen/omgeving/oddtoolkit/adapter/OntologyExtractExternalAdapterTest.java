@@ -0,0 +1,209 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.vlaanderen.omgeving.oddtoolkit.adapter.OntologyExtractExternalAdapter.ExtractExternalProperties;
+import be.vlaanderen.omgeving.oddtoolkit.adapter.OntologyExtractExternalAdapter.ExtractExternalProperties.MirrorEntry;
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import be.vlaanderen.omgeving.oddtoolkit.model.ImportGraph;
+import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelStore;
+import be.vlaanderen.omgeving.oddtoolkit.util.Tdb2ModelStore;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.vocabulary.OWL2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OntologyExtractExternalAdapterTest {
+
+  private HttpServer server;
+  private String baseUrl;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    serve("/a", 0, ontology("a"));
+    serve("/b", 0, ontology("b"));
+    serve("/slow", 5000, ontology("slow"));
+    serve("/mirror", 0, ontology("mirror"));
+    server.start();
+    baseUrl = "http://localhost:" + server.getAddress().getPort();
+    // c imports d (and c again through a fragment), d imports e and c through a trailing slash
+    serve("/c", 0, ontology("c", baseUrl + "/d", baseUrl + "/c#"));
+    serve("/d", 0, ontology("d", baseUrl + "/e", baseUrl + "/c/"));
+    serve("/e", 0, ontology("e"));
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void testFetchesImportsConcurrently() {
+    OntologyInfo info = rootOntology(baseUrl + "/a", baseUrl + "/b");
+
+    new OntologyExtractExternalAdapter(properties()).adapt(info);
+
+    assertThat(info.getExternalOntologies()).containsOnlyKeys(baseUrl + "/a", baseUrl + "/b");
+    assertThat(subjectOf(info, baseUrl + "/a")).isEqualTo("http://example.org/a");
+    assertThat(subjectOf(info, baseUrl + "/b")).isEqualTo("http://example.org/b");
+  }
+
+  @Test
+  void testHedgedMirrorWinsOverSlowOrigin() {
+    ExtractExternalProperties properties = properties();
+    properties.setMirrorHedgeDelayMs(50);
+    MirrorEntry mirror = new MirrorEntry();
+    mirror.setUri(baseUrl + "/slow");
+    mirror.setMirror(baseUrl + "/mirror");
+    properties.setMirrors(List.of(mirror));
+    OntologyInfo info = rootOntology(baseUrl + "/slow");
+
+    long start = System.currentTimeMillis();
+    new OntologyExtractExternalAdapter(properties).adapt(info);
+
+    assertThat(System.currentTimeMillis() - start).isLessThan(4000);
+    assertThat(subjectOf(info, baseUrl + "/slow")).isEqualTo("http://example.org/mirror");
+  }
+
+  @Test
+  void testFallsBackToMirrorWhenOriginFails() {
+    ExtractExternalProperties properties = properties();
+    MirrorEntry mirror = new MirrorEntry();
+    mirror.setUri(baseUrl + "/missing");
+    mirror.setMirror(baseUrl + "/mirror");
+    properties.setMirrors(List.of(mirror));
+    OntologyInfo info = rootOntology(baseUrl + "/missing");
+
+    new OntologyExtractExternalAdapter(properties).adapt(info);
+
+    assertThat(subjectOf(info, baseUrl + "/missing")).isEqualTo("http://example.org/mirror");
+  }
+
+  @Test
+  void testResolvesTransitiveImportsOnce() {
+    OntologyInfo info = rootOntology(baseUrl + "/c", baseUrl + "/d/");
+
+    new OntologyExtractExternalAdapter(properties()).adapt(info);
+
+    assertThat(info.getExternalOntologies())
+        .containsOnlyKeys(baseUrl + "/c", baseUrl + "/d/", baseUrl + "/e");
+    ImportGraph graph = info.getImportGraph();
+    assertThat(graph.getNodes()).containsOnlyKeys("http://example.org/root",
+        baseUrl + "/c", baseUrl + "/d", baseUrl + "/e");
+    assertThat(graph.getNode(baseUrl + "/e").getDepth()).isEqualTo(2);
+    assertThat(graph.getNode(baseUrl + "/d").getImports())
+        .containsExactlyInAnyOrder(baseUrl + "/e", baseUrl + "/c");
+  }
+
+  @Test
+  void testFetchesAgainWhenModelStoreEntryExpired(@TempDir Path dir) throws Exception {
+    AtomicInteger fetches = new AtomicInteger();
+    server.createContext("/counted", exchange -> {
+      fetches.incrementAndGet();
+      byte[] bytes = ontology("counted").getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "text/turtle");
+      exchange.sendResponseHeaders(200, bytes.length);
+      try (var out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    });
+    ExtractExternalProperties properties = properties();
+    properties.setCacheEnabled(true);
+    properties.setCacheDir("");
+    properties.setCacheTtlMs(60_000);
+
+    try (ModelStore store = new Tdb2ModelStore(dir)) {
+      for (int run = 0; run < 2; run++) {
+        new OntologyExtractExternalAdapter(properties, store)
+            .adapt(rootOntology(baseUrl + "/counted"));
+      }
+      assertThat(fetches).hasValue(1);
+
+      properties.setCacheTtlMs(1);
+      Thread.sleep(5);
+      OntologyInfo info = rootOntology(baseUrl + "/counted");
+      new OntologyExtractExternalAdapter(properties, store).adapt(info);
+
+      assertThat(fetches).hasValue(2);
+      assertThat(info.getExternalOntologies()).containsOnlyKeys(baseUrl + "/counted");
+    }
+  }
+
+  @Test
+  void testStopsAtMaxDepth() {
+    ExtractExternalProperties properties = properties();
+    properties.setImportsMaxDepth(1);
+    OntologyInfo info = rootOntology(baseUrl + "/c");
+
+    new OntologyExtractExternalAdapter(properties).adapt(info);
+
+    assertThat(info.getExternalOntologies()).containsOnlyKeys(baseUrl + "/c");
+    assertThat(info.getImportGraph().getNode(baseUrl + "/d").isResolved()).isFalse();
+  }
+
+  private ExtractExternalProperties properties() {
+    ExtractExternalProperties properties = new ExtractExternalProperties();
+    properties.setCacheEnabled(false);
+    properties.setMaxRetries(0);
+    properties.setFetchParallelism(4);
+    return properties;
+  }
+
+  private void serve(String path, long delayMs, String body) {
+    server.createContext(path, exchange -> {
+      try {
+        Thread.sleep(delayMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "text/turtle");
+      exchange.sendResponseHeaders(200, bytes.length);
+      try (var out = exchange.getResponseBody()) {
+        out.write(bytes);
+      } catch (IOException e) {
+        // client went away (hedged request cancelled)
+      }
+    });
+  }
+
+  private static String ontology(String name, String... imports) {
+    StringBuilder sb = new StringBuilder("<http://example.org/" + name
+        + "> a <http://www.w3.org/2002/07/owl#Ontology> .");
+    for (String uri : imports) {
+      sb.append("\n<http://example.org/").append(name)
+          .append("> <http://www.w3.org/2002/07/owl#imports> <").append(uri).append("> .");
+    }
+    return sb.toString();
+  }
+
+  private static OntologyInfo rootOntology(String... imports) {
+    Model model = ModelFactory.createDefaultModel();
+    var root = model.createResource("http://example.org/root");
+    for (String uri : imports) {
+      root.addProperty(OWL2.imports, model.createResource(uri));
+    }
+    OntologyInfo info = new OntologyInfo(new OntologyConfiguration());
+    info.setModel(model);
+    return info;
+  }
+
+  private static String subjectOf(OntologyInfo info, String reference) {
+    return info.getExternalOntologies().get(reference).getModel()
+        .listSubjects().next().getURI();
+  }
+}
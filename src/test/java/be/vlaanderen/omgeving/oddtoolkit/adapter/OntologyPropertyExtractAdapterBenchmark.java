@@ -0,0 +1,89 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import be.vlaanderen.omgeving.oddtoolkit.adapter.OntologyClassExtractAdapter.ClassExtractProperties;
+import be.vlaanderen.omgeving.oddtoolkit.adapter.OntologyPropertyExtractAdapter.PropertyExtractProperties;
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelSnapshot;
+import java.io.StringReader;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compares the property extraction navigating from every class to its restrictions with the bulk
+ * extraction scanning the graph once.
+ *
+ * Run with {@code mvn test -Dtest=OntologyPropertyExtractAdapterBenchmark -Doddtoolkit.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "oddtoolkit.benchmark", matches = "true")
+public class OntologyPropertyExtractAdapterBenchmark {
+
+  private static final String NS = "http://example.org/ns#";
+  private static final int RESTRICTIONS_PER_CLASS = 10;
+
+  @Test
+  void benchmarkBulkExtraction() {
+    for (int classes : new int[]{1_000, 5_000, 20_000}) {
+      Model base = ontology(classes);
+      Model inferred = ModelSnapshot.of(ModelFactory.createRDFSModel(base));
+      for (int round = 0; round < 3; round++) {
+        long navigated = extract(base, inferred, false);
+        long bulk = extract(base, inferred, true);
+        System.out.printf("%6d classes, round %d: navigation %8.1f ms, bulk %8.1f ms%n", classes,
+            round, navigated / 1e6, bulk / 1e6);
+      }
+    }
+  }
+
+  private static long extract(Model base, Model inferred, boolean bulk) {
+    OntologyInfo info = new OntologyInfo(new OntologyConfiguration());
+    info.setModel(base);
+    info.setInferredModel(inferred);
+    new OntologyClassExtractAdapter(new ClassExtractProperties()).adapt(info);
+    PropertyExtractProperties properties = new PropertyExtractProperties();
+    properties.setBulk(bulk);
+
+    long start = System.nanoTime();
+    new OntologyPropertyExtractAdapter(properties).adapt(info);
+    long nanos = System.nanoTime() - start;
+    int count = info.getClasses().stream().mapToInt(c -> c.getProperties().size()).sum();
+    if (count != info.getClasses().size() * RESTRICTIONS_PER_CLASS) {
+      throw new IllegalStateException("Unexpected number of properties: " + count);
+    }
+    return nanos;
+  }
+
+  /**
+   * Classes in a shallow hierarchy, each with a number of restrictions with cardinalities and
+   * ranges, on properties that have a label and a comment.
+   */
+  private static Model ontology(int classes) {
+    StringBuilder ttl = new StringBuilder("""
+        @prefix owl: <http://www.w3.org/2002/07/owl#> .
+        @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+        @prefix ex: <http://example.org/ns#> .
+        """);
+    for (int i = 0; i < classes; i++) {
+      ttl.append("ex:Class").append(i).append(" a owl:Class ; rdfs:label \"Class ").append(i)
+          .append("\"");
+      if (i > 0) {
+        ttl.append(" ; rdfs:subClassOf ex:Class").append((i - 1) / 10);
+      }
+      for (int r = 0; r < RESTRICTIONS_PER_CLASS; r++) {
+        ttl.append(" ; rdfs:subClassOf [ a owl:Restriction ; owl:onProperty ex:property")
+            .append(r).append(" ; owl:maxCardinality ").append(r % 3 + 1)
+            .append(" ; owl:someValuesFrom ex:Class").append((i + r) % classes).append(" ]");
+      }
+      ttl.append(" .\n");
+    }
+    for (int r = 0; r < RESTRICTIONS_PER_CLASS; r++) {
+      ttl.append("ex:property").append(r).append(" a owl:ObjectProperty ; rdfs:label \"property ")
+          .append(r).append("\" ; rdfs:comment \"A property\" .\n");
+    }
+    Model model = ModelFactory.createDefaultModel();
+    model.read(new StringReader(ttl.toString()), NS, "TURTLE");
+    return model;
+  }
+}
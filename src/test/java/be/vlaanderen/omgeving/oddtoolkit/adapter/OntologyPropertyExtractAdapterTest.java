@@ -0,0 +1,128 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.vlaanderen.omgeving.oddtoolkit.adapter.OntologyPropertyExtractAdapter.PropertyExtractProperties;
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import be.vlaanderen.omgeving.oddtoolkit.model.ClassInfo;
+import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import be.vlaanderen.omgeving.oddtoolkit.model.PropertyInfo;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelSnapshot;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+
+public class OntologyPropertyExtractAdapterTest {
+
+  private static final int CLASSES = 40;
+
+  @Test
+  void testParallelMatchesSequentialOnReadSafeModel() {
+    Model base = ontology();
+    Model inferred = ModelSnapshot.of(ModelFactory.createRDFSModel(base));
+
+    List<String> sequential = extract(base, inferred, false);
+    List<String> parallel = extract(base, inferred, true);
+
+    assertThat(parallel).isEqualTo(sequential);
+    assertThat(sequential).anyMatch(line -> line.contains("inverseOf=http://example.org/ns#owner3"));
+  }
+
+  @Test
+  void testParallelMatchesSequentialOnInferenceModel() {
+    Model base = ontology();
+
+    // default settings: the inferred model is an inference model, read from a snapshot in parallel;
+    // the order of its statements can differ between instances, both runs read the same one
+    Model inferred = ModelFactory.createRDFSModel(base);
+    List<String> sequential = extract(base, inferred, false);
+    List<String> parallel = extract(base, inferred, true);
+
+    assertThat(parallel).isEqualTo(sequential);
+    // external superclasses are bound to the inference model
+    assertThat(parallel).anyMatch(line -> line.startsWith(
+        "http://example.org/external#Thing0 http://example.org/ns#owns0 "));
+  }
+
+  @Test
+  void testBulkMatchesNavigation() {
+    Model base = ontology();
+
+    for (Model inferred : List.of(ModelFactory.createRDFSModel(base),
+        ModelSnapshot.of(ModelFactory.createRDFSModel(base)))) {
+      List<String> navigated = extract(base, inferred, false);
+      List<String> bulk = extract(base, inferred, false, true);
+
+      assertThat(bulk).isEqualTo(navigated);
+      assertThat(bulk).anyMatch(line -> line.contains(
+          "ns#owner0 range=[] inverseOf=http://example.org/ns#owns0 max=1"));
+    }
+  }
+
+  private static List<String> extract(Model base, Model inferred, boolean parallel) {
+    return extract(base, inferred, parallel, false);
+  }
+
+  private static List<String> extract(Model base, Model inferred, boolean parallel,
+      boolean bulk) {
+    OntologyInfo info = new OntologyInfo(new OntologyConfiguration());
+    info.setModel(base);
+    info.setInferredModel(inferred);
+    new OntologyClassExtractAdapter(
+        new OntologyClassExtractAdapter.ClassExtractProperties()).adapt(info);
+    PropertyExtractProperties properties = new PropertyExtractProperties();
+    properties.setParallel(parallel);
+    properties.setParallelism(4);
+    properties.setBulk(bulk);
+    new OntologyPropertyExtractAdapter(properties).adapt(info);
+
+    List<String> lines = new ArrayList<>();
+    for (ClassInfo classInfo : info.getClasses()) {
+      for (PropertyInfo p : classInfo.getProperties()) {
+        lines.add(classInfo.getUri() + " " + p.getUri() + " range=" + p.getRange() + " inverseOf="
+            + p.getInverseOf() + " max=" + p.getCardinalityTo().getMax());
+      }
+    }
+    return lines;
+  }
+
+  private static Model ontology() {
+    StringBuilder ttl = new StringBuilder("""
+        @prefix owl: <http://www.w3.org/2002/07/owl#> .
+        @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+        @prefix ex: <http://example.org/ns#> .
+        @prefix ext: <http://example.org/external#> .
+        """);
+    UnaryOperator<String> restriction = p -> "[ a owl:Restriction ; owl:onProperty ex:" + p
+        + " ; owl:maxCardinality 1 ]";
+    for (int i = 0; i < CLASSES; i++) {
+      ttl.append("ex:Class").append(i).append(" a owl:Class ; rdfs:subClassOf ext:Thing")
+          .append(i % 4).append(" , ").append(restriction.apply("name" + i)).append(" , ")
+          .append(restriction.apply("owner" + i)).append(" , [ a owl:Restriction ; owl:onProperty ex:name")
+          .append(i).append(" ; owl:allValuesFrom ext:Thing").append(i % 4).append(" ] .\n");
+      ttl.append("ex:owner").append(i).append(" a owl:ObjectProperty ; owl:inverseOf ex:owns")
+          .append(i).append(" .\n");
+      ttl.append("ex:owns").append(i).append(" a owl:ObjectProperty ; owl:inverseOf ex:owner")
+          .append(i).append(" .\n");
+    }
+    for (int i = 0; i < 4; i++) {
+      ttl.append("ext:Thing").append(i).append(" a owl:Class ; rdfs:subClassOf ext:Base , ")
+          .append(restriction.apply("owns" + i)).append(" .\n");
+    }
+    // only known through the inference model, with enough (inherited) superclasses that a
+    // snapshot lists them in another order
+    ttl.append("ext:Base rdfs:subClassOf ext:Root");
+    for (int j = 0; j < 10; j++) {
+      ttl.append(" , ").append(restriction.apply("detail" + j));
+    }
+    ttl.append(" .\n");
+    ttl.append("ext:Root rdfs:subClassOf ").append(restriction.apply("kind")).append(" .\n");
+    Model model = ModelFactory.createDefaultModel();
+    model.read(new StringReader(ttl.toString()), null, "TURTLE");
+    return model;
+  }
+}
@@ -0,0 +1,88 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyReasonerProperties;
+import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import java.util.function.Consumer;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compares the per-query latency of the queries the extract adapters run against the inferred
+ * model, with and without the snapshot.
+ *
+ * Run with {@code mvn test -Dtest=OntologyReasonerAdapterBenchmark -Doddtoolkit.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "oddtoolkit.benchmark", matches = "true")
+public class OntologyReasonerAdapterBenchmark {
+
+  private static final String NS = "http://example.org/ns#";
+  private static final int CLASSES = 1_000;
+
+  @Test
+  void benchmarkQueryLatency() {
+    for (boolean snapshot : new boolean[]{false, true}) {
+      OntologyReasonerProperties properties = new OntologyReasonerProperties();
+      properties.setInferredCacheEnabled(false);
+      properties.setReasonerMaterialize(true);
+      properties.setReasonerSnapshot(snapshot);
+      OntologyInfo info = ontology();
+      long start = System.nanoTime();
+      new OntologyReasonerAdapter(properties).adapt(info);
+      System.out.printf("%s: reasoning %.1f ms%n", snapshot ? "snapshot" : "inf model",
+          (System.nanoTime() - start) / 1_000_000.0);
+
+      Model inferred = info.getInferredModel();
+      measure("superclasses", inferred,
+          cls -> inferred.listStatements(cls, RDFS.subClassOf, (RDFNode) null).toList());
+      measure("domain", inferred,
+          cls -> inferred.listStatements(null, RDFS.domain, cls).toList());
+      measure("inverse", inferred,
+          cls -> inferred.listStatements(null, OWL2.inverseOf, (RDFNode) null).toList());
+    }
+  }
+
+  // first pass is what the extract adapters see, later passes hit the reasoner's tabled results
+  private static void measure(String name, Model inferred, Consumer<Resource> query) {
+    double[] passes = new double[3];
+    for (int pass = 0; pass < passes.length; pass++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < CLASSES; i++) {
+        query.accept(inferred.createResource(NS + "Class" + i));
+      }
+      passes[pass] = (System.nanoTime() - start) / 1_000.0 / CLASSES;
+    }
+    System.out.printf("  %-14s first %10.1f us/query  repeated %10.1f us/query%n", name,
+        passes[0], passes[passes.length - 1]);
+  }
+
+  // A class hierarchy (each class a subclass of its parent) with a property per class
+  private static OntologyInfo ontology() {
+    Model model = ModelFactory.createDefaultModel();
+    for (int i = 0; i < CLASSES; i++) {
+      Resource cls = model.createResource(NS + "Class" + i).addProperty(RDF.type, OWL2.Class);
+      if (i > 0) {
+        cls.addProperty(RDFS.subClassOf, model.createResource(NS + "Class" + (i - 1) / 2));
+      }
+      Resource property = model.createResource(NS + "property" + i)
+          .addProperty(RDF.type, OWL2.ObjectProperty)
+          .addProperty(RDFS.domain, cls)
+          .addProperty(RDFS.range, model.createResource(NS + "Class" + i / 3));
+      if (i % 10 == 0) {
+        model.createResource(NS + "inverse" + i)
+            .addProperty(RDF.type, OWL2.ObjectProperty)
+            .addProperty(OWL2.inverseOf, property);
+      }
+    }
+    OntologyInfo info = new OntologyInfo(new OntologyConfiguration());
+    info.setModel(model);
+    return info;
+  }
+}
@@ -0,0 +1,184 @@
+package be.vlaanderen.omgeving.oddtoolkit.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyReasonerProperties;
+import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import be.vlaanderen.omgeving.oddtoolkit.util.ModelStore;
+import be.vlaanderen.omgeving.oddtoolkit.util.Tdb2ModelStore;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OntologyReasonerAdapterTest {
+
+  // Reasoner adapter of which the first n materializations never finish
+  static class HangingReasonerAdapter extends OntologyReasonerAdapter {
+    final AtomicInteger hangs;
+
+    HangingReasonerAdapter(OntologyReasonerProperties properties, int hangs) {
+      super(properties);
+      this.hangs = new AtomicInteger(hangs);
+    }
+
+    @Override
+    protected void prepare(InfModel inf) {
+      if (hangs.getAndDecrement() > 0) {
+        try {
+          Thread.sleep(60_000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      super.prepare(inf);
+    }
+  }
+
+  @Test
+  void testReasoningWithinTimeout() {
+    OntologyInfo info = ontology();
+
+    new OntologyReasonerAdapter(properties("rdfs")).adapt(info);
+
+    assertThat(info.getReasonerMetrics().getStrategy()).isEqualTo("owl");
+    assertThat(info.getReasonerMetrics().isTimedOut()).isFalse();
+    // the closure is materialized within the deadline, later queries do not reason
+    assertThat(info.getInferredModel()).isNotInstanceOf(InfModel.class);
+    assertThat(isInferredPerson(info)).isTrue();
+  }
+
+  @Test
+  void testStopsReasonerThatKeepsQueryingAfterTimeout() throws Exception {
+    var stopped = new CountDownLatch(1);
+    OntologyReasonerAdapter adapter = new OntologyReasonerAdapter(properties("none")) {
+      @Override
+      protected void prepare(InfModel inf) {
+        try {
+          // busy rule engine, never blocks and ignores interrupts
+          Model data = inf.getRawModel();
+          while (true) {
+            data.contains(null, RDF.type, (RDFNode) null);
+          }
+        } finally {
+          stopped.countDown();
+        }
+      }
+    };
+
+    adapter.adapt(ontology());
+
+    assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void testFallsBackToRdfsOnTimeout() {
+    OntologyInfo info = ontology();
+
+    long start = System.currentTimeMillis();
+    new HangingReasonerAdapter(properties("rdfs"), 1).adapt(info);
+
+    assertThat(System.currentTimeMillis() - start).isLessThan(10_000);
+    assertThat(info.getReasonerMetrics().getStrategy()).isEqualTo("rdfs");
+    assertThat(info.getReasonerMetrics().isTimedOut()).isTrue();
+    assertThat(isInferredPerson(info)).isTrue();
+  }
+
+  @Test
+  void testFallsBackToNoInference() {
+    OntologyInfo info = ontology();
+
+    new HangingReasonerAdapter(properties("rdfs"), 2).adapt(info);
+
+    assertThat(info.getReasonerMetrics().getStrategy()).isEqualTo("none");
+    assertThat(isInferredPerson(info)).isFalse();
+  }
+
+  @Test
+  void testFailsOnTimeout() {
+    OntologyReasonerAdapter adapter = new HangingReasonerAdapter(properties("fail"), 1);
+
+    assertThatThrownBy(() -> adapter.adapt(ontology()))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("did not finish");
+  }
+
+  @Test
+  void testSnapshotIsReadOnlyCopyOfInferences() {
+    OntologyReasonerProperties properties = properties("rdfs");
+    properties.setReasonerSnapshot(true);
+    OntologyInfo info = ontology();
+
+    new OntologyReasonerAdapter(properties).adapt(info);
+
+    assertThat(info.getInferredModel()).isNotInstanceOf(InfModel.class);
+    assertThat(isInferredPerson(info)).isTrue();
+    assertThatThrownBy(() -> info.getInferredModel().add(RDF.type, RDF.type, RDF.Property))
+        .isInstanceOf(AddDeniedException.class);
+  }
+
+  @Test
+  void testModelStoreKeepsTheLatestUnexpiredInferredModel(@TempDir Path dir) throws Exception {
+    OntologyReasonerProperties properties = properties("rdfs");
+    properties.setInferredCacheEnabled(true);
+    properties.setInferredCacheDir("");
+    properties.setReasonerTimeoutMs(0);
+
+    try (ModelStore store = new Tdb2ModelStore(dir)) {
+      new OntologyReasonerAdapter(properties, store).adapt(ontology());
+      OntologyInfo cached = ontology();
+      new OntologyReasonerAdapter(properties, store).adapt(cached);
+      assertThat(cached.getReasonerMetrics().getStrategy()).isEqualTo("store");
+
+      OntologyInfo changed = ontology();
+      changed.getModel().createResource("http://example.org/bob")
+          .addProperty(RDF.type, changed.getModel().createResource("http://example.org/Employee"));
+      new OntologyReasonerAdapter(properties, store).adapt(changed);
+      assertThat(changed.getReasonerMetrics().getStrategy()).isEqualTo("owl");
+      assertThat(isInferredPerson(changed)).isTrue();
+      assertThat(store.names("inferred:")).hasSize(1);
+
+      properties.setInferredCacheTtlMs(1);
+      Thread.sleep(5);
+      OntologyInfo expired = ontology();
+      new OntologyReasonerAdapter(properties, store).adapt(expired);
+      assertThat(expired.getReasonerMetrics().getStrategy()).isEqualTo("owl");
+    }
+  }
+
+  private static OntologyReasonerProperties properties(String fallback) {
+    OntologyReasonerProperties properties = new OntologyReasonerProperties();
+    properties.setInferredCacheEnabled(false);
+    properties.setReasonerTimeoutMs(1_000);
+    properties.setReasonerTimeoutFallback(fallback);
+    return properties;
+  }
+
+  private static OntologyInfo ontology() {
+    Model model = ModelFactory.createDefaultModel();
+    model.createResource("http://example.org/Employee")
+        .addProperty(RDFS.subClassOf, model.createResource("http://example.org/Person"));
+    model.createResource("http://example.org/alice")
+        .addProperty(RDF.type, model.createResource("http://example.org/Employee"));
+    OntologyInfo info = new OntologyInfo(new OntologyConfiguration());
+    info.setModel(model);
+    return info;
+  }
+
+  private static boolean isInferredPerson(OntologyInfo info) {
+    Model inferred = info.getInferredModel();
+    return inferred.contains(inferred.createResource("http://example.org/alice"), RDF.type,
+        inferred.createResource("http://example.org/Person"));
+  }
+}
@@ -0,0 +1,94 @@
+package be.vlaanderen.omgeving.oddtoolkit.generator;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import be.vlaanderen.omgeving.oddtoolkit.model.ClassHierarchy;
+import be.vlaanderen.omgeving.oddtoolkit.model.ClassInfo;
+import be.vlaanderen.omgeving.oddtoolkit.model.ConceptSchemeInfo;
+import be.vlaanderen.omgeving.oddtoolkit.model.OntologyInfo;
+import be.vlaanderen.omgeving.oddtoolkit.model.PropertyInfo;
+import be.vlaanderen.omgeving.oddtoolkit.model.Scope;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Measures how the class generator scales with the number of classes.
+ *
+ * Run with {@code mvn test -Dtest=ClassGeneratorBenchmark -Doddtoolkit.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "oddtoolkit.benchmark", matches = "true")
+public class ClassGeneratorBenchmark {
+
+  private static final String NS = "http://example.org/ns#";
+  private static final int PROPERTIES_PER_CLASS = 5;
+
+  @Test
+  void benchmarkScaling() {
+    syntheticGenerator(500).run(); // warm-up
+    for (int classes : new int[]{1_000, 2_000, 5_000}) {
+      ClassGenerator generator = syntheticGenerator(classes);
+      long start = System.nanoTime();
+      generator.run();
+      System.out.printf("%5d classes: %10.1f ms (%d classes, %d interfaces generated)%n", classes,
+          (System.nanoTime() - start) / 1_000_000.0, generator.classes.size(),
+          generator.getInterfaces().size());
+    }
+  }
+
+  /**
+   * A class hierarchy with one external class (interface candidate) per ten classes. Every class
+   * has a few properties pointing to other classes, one of them with an inverse property.
+   */
+  static ClassGenerator syntheticGenerator(int size) {
+    Model model = ModelFactory.createDefaultModel();
+    OntologyConfiguration config = new OntologyConfiguration();
+    OntologyInfo info = new OntologyInfo(config);
+    info.setModel(model);
+
+    List<ClassInfo> externals = new ArrayList<>();
+    for (int i = 0; i < size / 10; i++) {
+      ClassInfo external = new ClassInfo(Scope.EXTERNAL,
+          model.createResource("http://example.org/external#Thing" + i));
+      externals.add(external);
+      info.addClass(external);
+    }
+    List<ClassInfo> classes = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      ClassInfo classInfo = new ClassInfo(Scope.ONTOLOGY, model.createResource(NS + "Class" + i));
+      if (i > 0) {
+        classInfo.getSuperClasses().add(classes.get((i - 1) / 2));
+      }
+      classInfo.getSuperClasses().add(externals.get(i % externals.size()));
+      classes.add(classInfo);
+      info.addClass(classInfo);
+    }
+    for (int i = 0; i < size; i++) {
+      for (int p = 0; p < PROPERTIES_PER_CLASS; p++) {
+        PropertyInfo property = new PropertyInfo(Scope.ONTOLOGY,
+            model.createResource(NS + "property" + i + "_" + p));
+        property.getCardinalityTo().setMax(p == 0 ? null : 1);
+        property.getRange().add(p % 2 == 0
+            ? NS + "Class" + (i * 7 + p) % size
+            : "http://example.org/external#Thing" + (i + p) % externals.size());
+        if (p == 0) {
+          property.setInverseOf(NS + "property" + (i * 7) % size + "_1");
+        }
+        classes.get(i).addProperty(property);
+      }
+    }
+    // external classes share the properties of the classes implementing them
+    for (int i = 0; i < externals.size(); i++) {
+      classes.get(i).getProperties().subList(1, 3).forEach(externals.get(i)::addProperty);
+    }
+
+    info.setClassHierarchy(ClassHierarchy.build(info.getClasses()));
+
+    ConceptSchemeInfo concepts = new ConceptSchemeInfo(config);
+    concepts.setClassConcepts(List.of());
+    concepts.setPropertyConcepts(List.of());
+    return new ClassGenerator(info, concepts, List.of());
+  }
+}
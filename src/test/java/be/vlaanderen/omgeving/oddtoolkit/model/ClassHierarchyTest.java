@@ -0,0 +1,81 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+
+public class ClassHierarchyTest {
+
+  private final Model model = ModelFactory.createDefaultModel();
+
+  @Test
+  void testTransitiveSuperClasses() {
+    // d -> b -> a, d -> c -> a
+    ClassInfo a = classInfo("a");
+    ClassInfo b = classInfo("b", a);
+    ClassInfo c = classInfo("c", a);
+    ClassInfo d = classInfo("d", b, c);
+
+    ClassHierarchy hierarchy = ClassHierarchy.build(List.of(d, c, b, a));
+
+    assertThat(hierarchy.getCycles()).isEmpty();
+    assertThat(d.isSubClassOf(uri("a"))).isTrue();
+    assertThat(d.isSubClassOf(uri("c"))).isTrue();
+    assertThat(b.isSubClassOf(uri("c"))).isFalse();
+    assertThat(a.isSubClassOf(uri("a"))).isFalse();
+    assertThat(hierarchy.getAncestorUris(d)).containsExactlyInAnyOrder(uri("a"), uri("b"), uri("c"));
+    // ancestors are numbered first
+    assertThat(hierarchy.getAncestorUris(d).getFirst()).isEqualTo(uri("a"));
+  }
+
+  @Test
+  void testReportsCycles() {
+    // a -> b -> c -> a, d -> a
+    ClassInfo a = classInfo("a");
+    ClassInfo b = classInfo("b");
+    ClassInfo c = classInfo("c", a);
+    a.getSuperClasses().add(b);
+    b.getSuperClasses().add(c);
+    ClassInfo d = classInfo("d", a);
+    ClassInfo e = classInfo("e");
+    e.getSuperClasses().add(e);
+
+    ClassHierarchy hierarchy = ClassHierarchy.build(List.of(d, e));
+
+    assertThat(hierarchy.getCycles()).hasSize(2);
+    assertThat(hierarchy.getCycles()).anySatisfy(cycle ->
+        assertThat(cycle).containsExactlyInAnyOrder(uri("a"), uri("b"), uri("c")));
+    assertThat(d.isSubClassOf(uri("c"))).isTrue();
+    assertThat(a.isSubClassOf(uri("a"))).isTrue();
+    assertThat(b.isSubClassOf(uri("d"))).isFalse();
+    assertThat(e.isSubClassOf(uri("e"))).isTrue();
+  }
+
+  @Test
+  void testFallsBackToWalkingWithoutHierarchy() {
+    ClassInfo a = classInfo("a");
+    ClassInfo b = classInfo("b", a);
+    a.getSuperClasses().add(b);
+    ClassHierarchy.build(List.of(b));
+
+    b.setSuperClasses(new ArrayList<>(List.of(a)));
+
+    // detached from the hierarchy, but still safe on the cycle
+    assertThat(b.isSubClassOf(uri("a"))).isTrue();
+    assertThat(b.isSubClassOf(uri("x"))).isFalse();
+  }
+
+  private ClassInfo classInfo(String name, ClassInfo... superClasses) {
+    ClassInfo classInfo = new ClassInfo(Scope.ONTOLOGY, model.createResource(uri(name)));
+    classInfo.getSuperClasses().addAll(List.of(superClasses));
+    return classInfo;
+  }
+
+  private static String uri(String name) {
+    return "http://example.org/" + name;
+  }
+}
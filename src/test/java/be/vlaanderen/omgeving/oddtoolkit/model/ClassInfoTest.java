@@ -0,0 +1,43 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+
+public class ClassInfoTest {
+
+  private final Model model = ModelFactory.createDefaultModel();
+
+  @Test
+  void testPropertiesAreUniqueByUri() {
+    ClassInfo classInfo = new ClassInfo(Scope.ONTOLOGY, model.createResource("http://example.org/A"));
+    PropertyInfo b = property("b");
+    PropertyInfo a = property("a");
+
+    assertThat(classInfo.addProperty(b)).isTrue();
+    assertThat(classInfo.addProperty(a)).isTrue();
+    assertThat(classInfo.addProperty(property("b"))).isFalse();
+
+    assertThat(classInfo.getProperties()).containsExactly(b, a);
+    assertThat(classInfo.getProperties().get(0)).isSameAs(b);
+    assertThat(classInfo.getPropertyByUri("http://example.org/a")).isSameAs(a);
+    assertThatThrownBy(() -> classInfo.getProperties().add(a))
+        .isInstanceOf(UnsupportedOperationException.class);
+
+    PropertyInfo replacement = property("b");
+    classInfo.replaceProperty(replacement);
+    assertThat(classInfo.getProperties()).containsExactly(replacement, a);
+    assertThat(classInfo.getProperties().get(0)).isSameAs(replacement);
+
+    assertThat(classInfo.removePropertiesIf(p -> p.getUri().endsWith("b"))).isTrue();
+    assertThat(classInfo.getProperties()).containsExactly(a);
+    assertThat(classInfo.getPropertyByUri("http://example.org/b")).isNull();
+  }
+
+  private PropertyInfo property(String name) {
+    return new PropertyInfo(Scope.ONTOLOGY, model.createResource("http://example.org/" + name));
+  }
+}
@@ -0,0 +1,52 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL2;
+import org.junit.jupiter.api.Test;
+
+public class ConceptSchemeInfoTest {
+
+  private final Model model = ModelFactory.createDefaultModel();
+
+  @Test
+  void testLooksUpConceptsByEquivalent() {
+    ClassConceptInfo first = classConcept("first", "http://example.org/A", "http://example.org/B");
+    ClassConceptInfo second = classConcept("second", "http://example.org/B");
+    PropertyConceptInfo property = propertyConcept("property", "http://example.org/p");
+    ConceptSchemeInfo info = new ConceptSchemeInfo(new OntologyConfiguration());
+    info.setClassConcepts(List.of(first, second));
+    info.setPropertyConcepts(List.of(property));
+    info.indexConcepts();
+
+    assertThat(info.getClassConceptByEquivalent("http://example.org/A")).isSameAs(first);
+    // the first concept wins
+    assertThat(info.getClassConceptByEquivalent("http://example.org/B")).isSameAs(first);
+    assertThat(info.getClassConceptByEquivalent("http://example.org/p")).isNull();
+    assertThat(info.getPropertyConceptByEquivalent("http://example.org/p")).isSameAs(property);
+
+    // replacing the concepts invalidates the index
+    info.setClassConcepts(List.of(second));
+    assertThat(info.getClassConceptByEquivalent("http://example.org/B")).isSameAs(second);
+    assertThat(info.getClassConceptByEquivalent("http://example.org/A")).isNull();
+  }
+
+  private ClassConceptInfo classConcept(String name, String... equivalents) {
+    Resource concept = model.createResource("http://example.org/concept/" + name);
+    for (String equivalent : equivalents) {
+      concept.addProperty(OWL2.equivalentClass, model.createResource(equivalent));
+    }
+    return new ClassConceptInfo(Scope.CONCEPTS, concept);
+  }
+
+  private PropertyConceptInfo propertyConcept(String name, String equivalent) {
+    Resource concept = model.createResource("http://example.org/concept/" + name);
+    concept.addProperty(OWL2.equivalentProperty, model.createResource(equivalent));
+    return new PropertyConceptInfo(Scope.CONCEPTS, concept);
+  }
+}
@@ -0,0 +1,56 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.OntologyConfiguration;
+import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+
+public class OntologyInfoTest {
+
+  private final Model model = ModelFactory.createDefaultModel();
+
+  @Test
+  void testClassesViewIsCachedUntilClassesChange() {
+    OntologyInfo info = new OntologyInfo(new OntologyConfiguration());
+    ClassInfo a = classInfo(Scope.ONTOLOGY, "a");
+    info.addClass(a);
+
+    List<ClassInfo> classes = info.getClasses();
+    assertThat(info.getClasses()).isSameAs(classes);
+    assertThatThrownBy(() -> classes.add(a)).isInstanceOf(UnsupportedOperationException.class);
+
+    info.addClass(classInfo(Scope.EXTERNAL, "b"));
+    assertThat(info.getClasses()).isNotSameAs(classes).hasSize(2);
+    assertThat(classes).containsExactly(a);
+
+    // a duplicate does not change the classes
+    List<ClassInfo> current = info.getClasses();
+    info.addClass(classInfo(Scope.ONTOLOGY, "a"));
+    assertThat(info.getClasses()).isSameAs(current);
+  }
+
+  @Test
+  void testClassesByScope() {
+    OntologyInfo info = new OntologyInfo(new OntologyConfiguration());
+    ClassInfo a = classInfo(Scope.ONTOLOGY, "a");
+    ClassInfo b = classInfo(Scope.EXTERNAL, "b");
+    ClassInfo c = classInfo(Scope.ONTOLOGY, "c");
+    info.setClasses(List.of(a, b, c));
+
+    assertThat(info.getClasses(Scope.ONTOLOGY)).containsExactly(a, c);
+    assertThat(info.getClasses(Scope.EXTERNAL)).containsExactly(b);
+    assertThat(info.getClasses(Scope.CONCEPTS)).isEmpty();
+
+    info.setClasses(List.of(b));
+    assertThat(info.getClasses(Scope.ONTOLOGY)).isEmpty();
+    assertThat(info.getClasses()).containsExactly(b);
+  }
+
+  private ClassInfo classInfo(Scope scope, String name) {
+    return new ClassInfo(scope, model.createResource("http://example.org/" + name));
+  }
+}
@@ -0,0 +1,130 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Measures the memory held by the IRIs of the info model and the cost of comparing them, with and
+ * without the term dictionary.
+ *
+ * Run with {@code mvn test -Dtest=TermDictionaryBenchmark -Doddtoolkit.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "oddtoolkit.benchmark", matches = "true")
+public class TermDictionaryBenchmark {
+
+  private static final String NS = "https://data.vlaanderen.be/ns/omgevingsvergunning/benchmark#";
+  private static final int CLASSES = 2_000;
+  private static final int PROPERTIES = 200_000;
+
+  @Test
+  void benchmarkDictionary() {
+    // The same ontology parsed twice, like the base and the inferred model
+    String ontology = ontology();
+    List<String> raw = new ArrayList<>();
+    List<PropertyInfo> infos = new ArrayList<>();
+    List<PropertyInfo> inferredInfos = new ArrayList<>();
+    long before = usedMemory();
+    for (List<PropertyInfo> target : List.of(infos, inferredInfos)) {
+      Model model = ModelFactory.createDefaultModel();
+      model.read(new StringReader(ontology), null, "N-TRIPLES");
+      for (Resource p : model.listResourcesWithProperty(RDF.type, OWL2.ObjectProperty).toList()) {
+        p.listProperties(RDFS.range)
+            .forEachRemaining(s -> raw.add(s.getObject().asResource().getURI()));
+        target.add(new PropertyInfo(Scope.ONTOLOGY, p, p));
+      }
+    }
+    long infoMemory = usedMemory() - before;
+    List<String> interned = new ArrayList<>();
+    infos.forEach(i -> interned.addAll(i.getRange()));
+    inferredInfos.forEach(i -> interned.addAll(i.getRange()));
+
+    System.out.printf("%d range IRIs: %d distinct instances from the parser, %d interned%n",
+        raw.size(), distinctInstances(raw), distinctInstances(interned));
+    System.out.printf("String bytes held by range IRIs: %.2f MB from the parser, %.2f MB interned"
+            + " (%.1f MB for both models and %d property infos)%n",
+        stringBytes(raw) / 1e6, stringBytes(interned) / 1e6, infoMemory / 1e6,
+        infos.size() + inferredInfos.size());
+
+    // Match the properties of both models, and every property against its neighbour
+    for (int round = 0; round < 3; round++) {
+      long start = System.nanoTime();
+      int stringMatches = 0;
+      for (int i = 1; i < infos.size(); i++) {
+        String uri = infos.get(i).getResource().getURI();
+        if (uri.equals(inferredInfos.get(i).getResource().getURI())) {
+          stringMatches++;
+        }
+        if (uri.equals(infos.get(i - 1).getResource().getURI())) {
+          stringMatches++;
+        }
+      }
+      long stringNanos = System.nanoTime() - start;
+      start = System.nanoTime();
+      int idMatches = 0;
+      for (int i = 1; i < infos.size(); i++) {
+        // AbstractInfo.equals compares the term ids
+        PropertyInfo info = infos.get(i);
+        if (info.equals(inferredInfos.get(i))) {
+          idMatches++;
+        }
+        if (info.equals(infos.get(i - 1))) {
+          idMatches++;
+        }
+      }
+      long idNanos = System.nanoTime() - start;
+      System.out.printf("round %d: string equals %.2f ms, info equals %.2f ms (%d/%d matches)%n",
+          round, stringNanos / 1e6, idNanos / 1e6, stringMatches, idMatches);
+    }
+    System.out.printf("dictionary size: %d terms%n", TermDictionary.size());
+  }
+
+  private static String ontology() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < PROPERTIES; i++) {
+      String property = "<" + NS + "property" + i + ">";
+      sb.append(property).append(" <").append(RDF.type.getURI()).append("> <")
+          .append(OWL2.ObjectProperty.getURI()).append("> .\n");
+      sb.append(property).append(" <http://www.w3.org/2000/01/rdf-schema#range> <")
+          .append(NS).append("Class").append(i % CLASSES).append("> .\n");
+    }
+    return sb.toString();
+  }
+
+  private static int distinctInstances(List<String> strings) {
+    Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+    instances.addAll(strings);
+    return instances.size();
+  }
+
+  // Approximate: 40 bytes String + byte[] header per instance, plus the Latin-1 characters
+  private static long stringBytes(List<String> strings) {
+    Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+    long bytes = 0;
+    for (String s : strings) {
+      if (instances.add(s)) {
+        bytes += 40 + s.length();
+      }
+    }
+    return bytes;
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,38 @@
+package be.vlaanderen.omgeving.oddtoolkit.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+
+public class TermDictionaryTest {
+
+  @Test
+  void testInternsTerms() {
+    String iri = "http://example.org/dictionary#Term";
+    String copy = new String(iri);
+
+    assertThat(TermDictionary.id(copy)).isEqualTo(TermDictionary.id(iri));
+    assertThat(TermDictionary.intern(copy)).isSameAs(TermDictionary.intern(iri));
+    assertThat(TermDictionary.term(TermDictionary.id(iri))).isEqualTo(iri);
+    assertThat(TermDictionary.id(null)).isEqualTo(TermDictionary.NO_ID);
+    assertThat(TermDictionary.intern(null)).isNull();
+  }
+
+  @Test
+  void testInfoObjectsCarryIds() {
+    Model first = ModelFactory.createDefaultModel();
+    Model second = ModelFactory.createDefaultModel();
+    ClassInfo a = new ClassInfo(Scope.ONTOLOGY, first.createResource("http://example.org/A"));
+    ClassInfo b = new ClassInfo(Scope.ONTOLOGY, second.createResource("http://example.org/A"));
+    ClassInfo c = new ClassInfo(Scope.ONTOLOGY, first.createResource("http://example.org/C"));
+
+    assertThat(a.getUriId()).isEqualTo(b.getUriId()).isNotEqualTo(c.getUriId());
+    assertThat(a.getUri()).isSameAs(b.getUri());
+    assertThat(a).isEqualTo(b).isNotEqualTo(c);
+
+    c.setUri("http://example.org/A");
+    assertThat(c).isEqualTo(a);
+  }
+}
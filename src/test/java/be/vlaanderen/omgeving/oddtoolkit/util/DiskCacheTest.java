@@ -0,0 +1,125 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DiskCacheTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void testEvictsLeastRecentlyUsedEntries() throws Exception {
+    DiskCache cache = new DiskCache(dir, 2, 0);
+    put(cache, key('a'), "a");
+    put(cache, key('b'), "b");
+    // a is now used more recently than b
+    assertThat(cache.get(key('a'))).isNotNull();
+    Thread.sleep(5);
+    put(cache, key('c'), "c");
+
+    assertThat(cache.get(key('b'))).isNull();
+    assertThat(cache.get(key('a'))).isNotNull();
+    assertThat(cache.get(key('c'))).isNotNull();
+    assertThat(Files.exists(dir.resolve(key('b')))).isFalse();
+    assertThat(cache.getHits()).isEqualTo(3);
+    assertThat(cache.getMisses()).isEqualTo(1);
+    assertThat(cache.getEvictions()).isEqualTo(1);
+  }
+
+  @Test
+  void testEvictsUntilWithinMaxBytes() throws Exception {
+    DiskCache cache = new DiskCache(dir, 0, 25);
+    put(cache, key('a'), "0123456789");
+    put(cache, key('b'), "0123456789");
+    put(cache, key('c'), "01234567890123456789");
+
+    // only the newest entry fits, even when it is the only one
+    assertThat(cache.get(key('a'))).isNull();
+    assertThat(cache.get(key('b'))).isNull();
+    assertThat(cache.get(key('c'))).isNotNull();
+    assertThat(cache.getEvictions()).isEqualTo(2);
+  }
+
+  @Test
+  void testKeepsIndexBetweenInstancesAndAdoptsUnindexedFiles() throws Exception {
+    put(new DiskCache(dir, 0, 0), key('a'), "a");
+    // written by an older version, without index entry
+    Files.writeString(dir.resolve(key('b') + ".ttl"), "b");
+    Files.writeString(dir.resolve("inferred.ttl"), "not a cache entry");
+
+    DiskCache cache = new DiskCache(dir, 1, 0);
+    assertThat(cache.get(key('a'))).isNotNull();
+    Thread.sleep(5);
+    put(cache, key('c'), "c");
+
+    assertThat(cache.get(key('a'))).isNull();
+    assertThat(Files.exists(dir.resolve(key('b') + ".ttl"))).isFalse();
+    assertThat(Files.exists(dir.resolve("inferred.ttl"))).isTrue();
+    assertThat(cache.getEvictions()).isEqualTo(2);
+  }
+
+  @Test
+  void testLeavesEntriesBeingWrittenAlone() throws Exception {
+    DiskCache cache = new DiskCache(dir, 1, 0);
+    // with extension, so its temporary file name looks like an entry name as well
+    String entry = key('a') + ".ttl";
+    var writing = new CountDownLatch(1);
+    var evicted = new CountDownLatch(1);
+    // a writer still busy with its temporary file while another one evicts
+    var slowPut = CompletableFuture.runAsync(() -> {
+      try {
+        cache.put(entry, out -> {
+          out.write('a');
+          writing.countDown();
+          try {
+            evicted.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    writing.await();
+    put(cache, key('b'), "b");
+    evicted.countDown();
+    slowPut.get(10, TimeUnit.SECONDS);
+
+    // the finished entry is the newest one, so it evicts b
+    assertThat(cache.get(entry)).isNotNull();
+    assertThat(cache.get(key('b'))).isNull();
+    assertThat(cache.getEvictions()).isEqualTo(1);
+  }
+
+  @Test
+  void testRemove() throws Exception {
+    DiskCache cache = new DiskCache(dir, 0, 0);
+    put(cache, key('a'), "a");
+    cache.remove(key('a'));
+
+    assertThat(cache.get(key('a'))).isNull();
+    assertThat(Files.exists(dir.resolve(key('a')))).isFalse();
+  }
+
+  private static void put(DiskCache cache, String key, String content) throws Exception {
+    cache.put(key, out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+    // distinct access times, so the least recently used entry is well-defined
+    Thread.sleep(5);
+  }
+
+  private static String key(char c) {
+    return String.valueOf(c).repeat(64);
+  }
+}
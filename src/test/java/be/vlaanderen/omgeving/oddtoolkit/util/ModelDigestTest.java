@@ -0,0 +1,77 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+
+public class ModelDigestTest {
+
+  private static final String TURTLE = """
+      @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+      <http://example.org/a> rdfs:label "A"@nl ; rdfs:subClassOf [ rdfs:label "anonymous" ] .
+      <http://example.org/b> rdfs:label "B" .
+      """;
+
+  @Test
+  void testDigestIsIndependentOfOrderAndBlankNodeLabels() {
+    Model reordered = parse("""
+        @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+        <http://example.org/b> rdfs:label "B" .
+        <http://example.org/a> rdfs:subClassOf _:x ; rdfs:label "A"@nl .
+        _:x rdfs:label "anonymous" .
+        """);
+
+    assertThat(ModelDigest.digest(reordered)).isEqualTo(ModelDigest.digest(parse(TURTLE)));
+  }
+
+  @Test
+  void testDigestChangesWithContent() {
+    Model changed = parse(TURTLE.replace("\"B\"", "\"C\""));
+
+    assertThat(ModelDigest.digest(changed)).isNotEqualTo(ModelDigest.digest(parse(TURTLE)));
+    assertThat(ModelDigest.digest(parse(TURTLE.replace("\"A\"@nl", "\"A\"@en"))))
+        .isNotEqualTo(ModelDigest.digest(parse(TURTLE)));
+  }
+
+  @Test
+  void testDigestCoversBlankNodeContent() {
+    String restrictions = """
+        @prefix ex: <http://example.org/> .
+        @prefix owl: <http://www.w3.org/2002/07/owl#> .
+        @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+        ex:A rdfs:subClassOf [ a owl:Restriction ; owl:onProperty ex:p ; owl:someValuesFrom ex:X ] .
+        ex:B rdfs:subClassOf [ a owl:Restriction ; owl:onProperty ex:p ; owl:someValuesFrom ex:Y ] .
+        ex:C owl:unionOf ( ex:X ex:Y ) .
+        """;
+    Model swapped = parse(restrictions.replace("ex:X ]", "ex:Z ]").replace("ex:Y ]", "ex:X ]")
+        .replace("ex:Z ]", "ex:Y ]"));
+    Model reordered = parse(restrictions.replace("( ex:X ex:Y )", "( ex:Y ex:X )"));
+
+    assertThat(ModelDigest.digest(swapped)).isNotEqualTo(ModelDigest.digest(parse(restrictions)));
+    assertThat(ModelDigest.digest(reordered))
+        .isNotEqualTo(ModelDigest.digest(parse(restrictions)));
+    assertThat(ModelDigest.digest(parse(restrictions)))
+        .isEqualTo(ModelDigest.digest(parse(restrictions)));
+  }
+
+  @Test
+  void testDigestOfBlankNodeCycles() {
+    String cycle = """
+        @prefix ex: <http://example.org/> .
+        _:a ex:next _:b . _:b ex:next _:a . _:a ex:label "a" .
+        """;
+
+    assertThat(ModelDigest.digest(parse(cycle))).isEqualTo(ModelDigest.digest(parse(cycle)));
+    assertThat(ModelDigest.digest(parse(cycle.replace("\"a\"", "\"b\""))))
+        .isNotEqualTo(ModelDigest.digest(parse(cycle)));
+  }
+
+  private static Model parse(String turtle) {
+    Model model = ModelFactory.createDefaultModel();
+    model.read(new StringReader(turtle), null, "TURTLE");
+    return model;
+  }
+}
@@ -0,0 +1,74 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ParsedModelCacheTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void testSnapshotsAreKeyedByContentAndOptions() throws Exception {
+    Path file = Files.writeString(dir.resolve("ontology.ttl"), "content");
+    ParsedModelCache cache = new ParsedModelCache(dir.resolve("cache"), Lang.RDFTHRIFT, 0, 0);
+    Model model = ModelFactory.createDefaultModel();
+    model.add(model.createResource("http://example.org/a"), RDFS.label, "a");
+
+    assertThat(cache.get(file, "options")).isNull();
+    cache.put(file, "options", model);
+
+    assertThat(cache.get(file, "options").isIsomorphicWith(model)).isTrue();
+    assertThat(cache.get(file, "other options")).isNull();
+
+    // touched but unchanged content: still the same snapshot
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+    assertThat(cache.get(file, "options")).isNotNull();
+
+    // changed content
+    Files.writeString(file, "changed");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 20_000));
+    assertThat(cache.get(file, "options")).isNull();
+  }
+
+  @Test
+  void testSkipsHashingWhileSizeAndModificationTimeMatch() throws Exception {
+    Path file = Files.writeString(dir.resolve("ontology.ttl"), "content");
+    FileTime modified = Files.getLastModifiedTime(file);
+    ParsedModelCache cache = new ParsedModelCache(dir.resolve("cache"), Lang.RDFTHRIFT, 0, 0);
+    cache.put(file, "options", ModelFactory.createDefaultModel());
+
+    // same size and modification time: the recorded hash is used
+    Files.writeString(file, "CONTENT");
+    Files.setLastModifiedTime(file, modified);
+
+    assertThat(cache.get(file, "options")).isNotNull();
+  }
+
+  @Test
+  void testEvictsLeastRecentlyUsedSnapshots() throws Exception {
+    Path first = Files.writeString(dir.resolve("first.ttl"), "first");
+    Path second = Files.writeString(dir.resolve("second.ttl"), "second");
+    // a snapshot and a stamp per file
+    ParsedModelCache cache = new ParsedModelCache(dir.resolve("cache"), Lang.RDFTHRIFT, 2, 0);
+    cache.put(first, "options", ModelFactory.createDefaultModel());
+    assertThat(cache.get(first, "options")).isNotNull();
+
+    cache.put(second, "options", ModelFactory.createDefaultModel());
+
+    assertThat(cache.get(second, "options")).isNotNull();
+    assertThat(cache.get(first, "options")).isNull();
+    try (var files = Files.list(dir.resolve("cache"))) {
+      assertThat(files.filter(f -> !f.getFileName().toString().startsWith("cache."))).hasSize(2);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Compares write and read times of the cache formats.
+ *
+ * Run with {@code mvn test -Dtest=RdfCacheFileBenchmark -Doddtoolkit.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "oddtoolkit.benchmark", matches = "true")
+public class RdfCacheFileBenchmark {
+
+  private static final int RESOURCES = 100_000;
+  private static final int ITERATIONS = 5;
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void benchmarkFormats() throws Exception {
+    Model model = syntheticModel();
+    System.out.printf("%d triples%n", model.size());
+    for (Lang lang : new Lang[]{Lang.TURTLE, Lang.NTRIPLES, Lang.RDFTHRIFT, Lang.RDFPROTO}) {
+      Path file = dir.resolve("model" + RdfCacheFile.extension(lang));
+      RdfCacheFile.write(model, file, lang); // warm-up
+      assertThat(RdfCacheFile.read(file, lang).size()).isEqualTo(model.size());
+
+      long start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        RdfCacheFile.write(model, file, lang);
+      }
+      long write = System.nanoTime() - start;
+      start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        RdfCacheFile.read(file, lang);
+      }
+      long read = System.nanoTime() - start;
+      // parsing only, without building the in-memory graph
+      start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        try (var in = new BufferedInputStream(Files.newInputStream(file))) {
+          while (in.read() != '\n') {
+            // skip the cache header
+          }
+          RDFParser.source(in).lang(lang).parse(StreamRDFLib.sinkNull());
+        }
+      }
+      long parse = System.nanoTime() - start;
+      System.out.printf("%-12s write %8.1f ms/op  read %8.1f ms/op  parse %8.1f ms/op  %11d bytes%n",
+          lang.getLabel(), write / 1_000_000.0 / ITERATIONS, read / 1_000_000.0 / ITERATIONS,
+          parse / 1_000_000.0 / ITERATIONS, Files.size(file));
+    }
+  }
+
+  private static Model syntheticModel() {
+    Model model = ModelFactory.createDefaultModel();
+    var domain = model.createProperty("http://example.org/domain");
+    for (int i = 0; i < RESOURCES; i++) {
+      var resource = model.createResource("http://example.org/ns#Class" + i);
+      resource.addProperty(RDF.type, OWL2.Class)
+          .addProperty(RDFS.label, "Class " + i, "nl")
+          .addProperty(RDFS.comment, "Synthetic class number " + i + " used for benchmarking")
+          .addProperty(RDFS.subClassOf, model.createResource("http://example.org/ns#Class" + i / 2))
+          .addProperty(domain, model.createResource()
+              .addProperty(RDF.type, OWL2.Restriction)
+              .addLiteral(OWL2.maxCardinality, 1));
+    }
+    return model;
+  }
+}
@@ -0,0 +1,67 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class RdfCacheFileTest {
+
+  @TempDir
+  Path dir;
+
+  @ParameterizedTest
+  @ValueSource(strings = {"TURTLE", "N-TRIPLES", "RDF-THRIFT", "RDF-PROTO"})
+  void testRoundTrip(String format) throws Exception {
+    Lang lang = RdfCacheFile.resolveLang(format);
+    Path file = dir.resolve("model" + RdfCacheFile.extension(lang));
+
+    RdfCacheFile.write(model(), file, lang);
+
+    assertThat(RdfCacheFile.read(file, lang).isIsomorphicWith(model())).isTrue();
+  }
+
+  @Test
+  void testOtherFormatIsCacheMiss() throws Exception {
+    Path file = dir.resolve("model.cache");
+    RdfCacheFile.write(model(), file, Lang.TURTLE);
+
+    assertThat(RdfCacheFile.read(file, Lang.RDFTHRIFT)).isNull();
+  }
+
+  @Test
+  void testFileWithoutHeaderIsCacheMiss() throws Exception {
+    Path file = dir.resolve("model.ttl");
+    try (var out = Files.newOutputStream(file)) {
+      model().write(out, "TURTLE");
+    }
+
+    assertThat(RdfCacheFile.read(file, Lang.TURTLE)).isNull();
+  }
+
+  @Test
+  void testResolveLang() {
+    assertThat(RdfCacheFile.resolveLang("thrift")).isEqualTo(Lang.RDFTHRIFT);
+    assertThat(RdfCacheFile.resolveLang("protobuf")).isEqualTo(Lang.RDFPROTO);
+    assertThat(RdfCacheFile.resolveLang("N-TRIPLES")).isEqualTo(Lang.NTRIPLES);
+    assertThatThrownBy(() -> RdfCacheFile.resolveLang("nope"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static Model model() {
+    Model model = ModelFactory.createDefaultModel();
+    model.createResource("http://example.org/a")
+        .addProperty(RDFS.label, "A", "nl")
+        .addProperty(RDFS.seeAlso, model.createResource());
+    return model;
+  }
+}
@@ -0,0 +1,107 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.RdfLoadProperties;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RdfLoaderTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void testDetectsFormatFromContent() {
+    assertThat(detect("@prefix ex: <http://example.org/> .\nex:a ex:b ex:c .", "data"))
+        .isEqualTo(Lang.TURTLE);
+    assertThat(detect("PREFIX ex: <http://example.org/>\nex:a ex:b ex:c .", "data.rdf"))
+        .isEqualTo(Lang.TURTLE);
+    assertThat(detect("<?xml version=\"1.0\"?>\n<rdf:RDF/>", "data.ttl"))
+        .isEqualTo(Lang.RDFXML);
+    assertThat(detect("<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\"/>",
+        "data")).isEqualTo(Lang.RDFXML);
+    assertThat(detect("{ \"@id\": \"http://example.org/a\" }", "data")).isEqualTo(Lang.JSONLD);
+    assertThat(detect("# comment\n<http://example.org/a> <http://example.org/b> \"c\"@en .\n"
+        + "_:b0 <http://example.org/b> <http://example.org/c> .\n", "data"))
+        .isEqualTo(Lang.NTRIPLES);
+    assertThat(detect("<http://example.org/a> <http://example.org/b> <http://example.org/c> "
+        + "<http://example.org/g> .\n", "data")).isEqualTo(Lang.NQUADS);
+    // N-Triples content is valid Turtle, a Turtle file is not parsed as N-Triples
+    assertThat(detect("<http://example.org/a> <http://example.org/b> <http://example.org/c> .\n",
+        "data.ttl")).isEqualTo(Lang.TURTLE);
+    // Turtle without prefixes in a file named as N-Triples
+    assertThat(detect("<http://example.org/a> <http://example.org/b> <http://example.org/c> ;\n"
+        + "  <http://example.org/d> 1 .\n", "data.nt")).isEqualTo(Lang.TURTLE);
+    assertThat(detect(new byte[]{0, 1, 2, 3}, "data.rt")).isEqualTo(Lang.RDFTHRIFT);
+  }
+
+  @Test
+  void testLoadsNTriplesInChunks() throws Exception {
+    StringBuilder nt = new StringBuilder();
+    for (int i = 0; i < 1_000; i++) {
+      nt.append("<http://example.org/s").append(i).append("> <http://example.org/p> _:b")
+          .append(i % 10).append(" .\n");
+      nt.append("_:b").append(i % 10).append(" <").append(RDFS.label.getURI()).append("> \"")
+          .append(i % 10).append("\" .\n");
+    }
+    Path file = dir.resolve("data.nt.gz");
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+      out.write(nt.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    RdfLoadProperties sequential = new RdfLoadProperties();
+    sequential.setParallel(false);
+    RdfLoadProperties chunked = new RdfLoadProperties();
+    chunked.setParallelism(4);
+    chunked.setChunkSizeBytes(1024);
+
+    Model expected = RdfLoader.load(file.toString(), sequential);
+    Model actual = RdfLoader.load(file.toString(), chunked);
+
+    assertThat(expected.size()).isEqualTo(1_010);
+    // blank nodes with the same label in different chunks are the same node
+    assertThat(actual.isIsomorphicWith(expected)).isTrue();
+  }
+
+  @Test
+  void testFiltersPredicatesWhileParsing() throws Exception {
+    Path file = dir.resolve("concepts");
+    Files.writeString(file, """
+        @prefix ex: <http://example.org/> .
+        @prefix skos: <http://www.w3.org/2004/02/skos/core#> .
+        ex:a a skos:Concept ; skos:prefLabel "a" ; skos:altLabel "alpha" ; skos:scopeNote "x" .
+        """);
+    RdfLoadProperties properties = new RdfLoadProperties();
+    properties.setDropPredicates(List.of("http://www.w3.org/2004/02/skos/core#altLabel",
+        "http://www.w3.org/2004/02/skos/core#scopeNote"));
+
+    Model model = RdfLoader.load(file.toString(), properties);
+
+    assertThat(model.size()).isEqualTo(2);
+    assertThat(model.getNsPrefixURI("skos")).isEqualTo("http://www.w3.org/2004/02/skos/core#");
+
+    properties.setKeepPredicates(List.of("http://www.w3.org/2004/02/skos/core#prefLabel"));
+    model = RdfLoader.load(file.toString(), properties);
+
+    assertThat(model.listStatements(null, null, (RDFNode) null).toList()).hasSize(1);
+  }
+
+  private static Lang detect(String content, String fileName) {
+    return detect(content.getBytes(StandardCharsets.UTF_8), fileName);
+  }
+
+  private static Lang detect(byte[] content, String fileName) {
+    return RdfLoader.detectLang(content, fileName);
+  }
+}
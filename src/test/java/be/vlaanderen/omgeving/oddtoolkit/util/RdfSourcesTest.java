@@ -0,0 +1,120 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import be.vlaanderen.omgeving.oddtoolkit.config.RdfLoadProperties;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RdfSourcesTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void testResolvesDirectoriesAndGlobs() throws Exception {
+    Path modules = Files.createDirectories(dir.resolve("modules/sub"));
+    Path a = write(dir.resolve("modules/a.ttl"), "A");
+    Path b = write(modules.resolve("b.ttl"), "B");
+    Files.writeString(dir.resolve("modules/README.md"), "not rdf");
+    Path single = write(dir.resolve("single.nt"), "C");
+
+    assertThat(RdfSources.resolve(List.of(dir.resolve("modules").toString())))
+        .containsExactly(a.toString(), b.toString());
+    assertThat(RdfSources.resolve(List.of(dir + "/modules/**/*.ttl")))
+        .containsExactly(a.toString(), b.toString());
+    assertThat(RdfSources.resolve(List.of(dir + "/modules/*.ttl", single.toString(),
+        a.toString()))).containsExactly(a.toString(), single.toString());
+    assertThat(RdfSources.resolve(List.of("https://example.org/ontology.ttl")))
+        .containsExactly("https://example.org/ontology.ttl");
+  }
+
+  @Test
+  void testLoadsFilesIntoNamedGraphsAndMerges() throws Exception {
+    Path a = write(dir.resolve("a.ttl"), "A");
+    Path b = write(dir.resolve("b.ttl"), "B");
+    ModelStore store = new InMemoryModelStore();
+
+    Dataset sources = RdfSources.load(List.of(a.toString(), b.toString()),
+        properties(), store);
+    Model merged = RdfSources.merge(sources, "ontology", store);
+
+    List<String> names = new ArrayList<>();
+    sources.listNames().forEachRemaining(names::add);
+    assertThat(names).containsExactlyInAnyOrder(a.toUri().toString(), b.toUri().toString());
+    assertThat(sources.getNamedModel(a.toUri().toString()).size()).isEqualTo(1);
+    assertThat(merged.listObjectsOfProperty(RDFS.label).toList()).hasSize(2);
+    assertThat(merged.getNsPrefixURI("ex")).isEqualTo("http://example.org/");
+  }
+
+  @Test
+  void testOnlyParsesChangedFilesAgain() throws Exception {
+    Path a = write(dir.resolve("a.ttl"), "A");
+    Path b = write(dir.resolve("b.ttl"), "B");
+    List<String> locations = List.of(a.toString(), b.toString());
+
+    try (ModelStore store = new Tdb2ModelStore(dir.resolve("store"))) {
+      RdfSources.load(locations, properties(), store);
+
+      // same size and modification time: the stored model is used, the file is not read
+      FileTime aModified = Files.getLastModifiedTime(a);
+      write(a, "X");
+      Files.setLastModifiedTime(a, aModified);
+      // changed: parsed again
+      write(b, "Changed");
+      Files.setLastModifiedTime(b, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+      Dataset sources = RdfSources.load(locations, properties(), store);
+
+      assertThat(label(sources, a)).isEqualTo("A");
+      assertThat(label(sources, b)).isEqualTo("Changed");
+    }
+  }
+
+  @Test
+  void testRemovesReplacedMergesAndDeletedSources() throws Exception {
+    Path a = write(dir.resolve("a.ttl"), "A");
+    Path b = write(dir.resolve("b.ttl"), "B");
+    Path c = write(dir.resolve("c.ttl"), "C");
+
+    try (ModelStore store = new Tdb2ModelStore(dir.resolve("store"))) {
+      RdfSources.merge(RdfSources.load(List.of(a.toString(), b.toString()), properties(), store),
+          "ontology", store);
+      Files.delete(b);
+      Model merged = RdfSources.merge(RdfSources.load(List.of(a.toString(), c.toString()),
+          properties(), store), "ontology", store);
+
+      assertThat(merged.size()).isEqualTo(2);
+      assertThat(store.names("ontology:")).hasSize(1);
+      assertThat(store.names("source:")).containsExactlyInAnyOrder(
+          "source:" + a.toUri(), "source:" + c.toUri());
+      assertThat(store.get("fingerprint:" + b.toUri())).isNull();
+    }
+  }
+
+  private RdfLoadProperties properties() {
+    RdfLoadProperties properties = new RdfLoadProperties();
+    properties.setCacheDir(dir.resolve("cache").toString());
+    return properties;
+  }
+
+  private static String label(Dataset sources, Path file) {
+    return sources.getNamedModel(file.toUri().toString())
+        .listObjectsOfProperty(RDFS.label).toList().getFirst().asLiteral().getString();
+  }
+
+  private static Path write(Path file, String label) throws Exception {
+    return Files.writeString(file, """
+        @prefix ex: <http://example.org/> .
+        @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+        ex:%s rdfs:label "%s" .
+        """.formatted(label, label));
+  }
+}
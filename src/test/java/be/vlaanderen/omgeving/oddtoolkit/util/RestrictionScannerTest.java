@@ -0,0 +1,88 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import be.vlaanderen.omgeving.oddtoolkit.util.RestrictionScanner.PropertyRestriction;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.junit.jupiter.api.Test;
+
+public class RestrictionScannerTest {
+
+  private static final String PREFIXES = """
+      @prefix ex: <http://example.org/> .
+      @prefix owl: <http://www.w3.org/2002/07/owl#> .
+      @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+      """;
+
+  @Test
+  void testScansRestrictionsOfClasses() {
+    Model model = read("""
+        ex:Person a owl:Class ; rdfs:subClassOf ex:Agent ,
+          [ a owl:Restriction ; owl:onProperty ex:name ; owl:cardinality 1 ] ,
+          [ a owl:Restriction ; owl:onProperty ex:knows ; owl:maxCardinality 5 ;
+            owl:someValuesFrom ex:Person ; rdfs:comment "People they know" ] ,
+          [ a owl:Restriction ; owl:onProperty ex:address ; owl:minCardinality 0 ;
+            owl:allValuesFrom ex:Address ] ,
+          [ owl:onProperty ex:untyped ] .
+        ex:Agent a owl:Class ; rdfs:subClassOf
+          [ a owl:Restriction ; owl:onProperty ex:identifier ] .
+        ex:name rdfs:label "name" ; rdfs:comment "The name" .
+        """);
+    Resource person = model.getResource("http://example.org/Person");
+
+    Map<Resource, List<PropertyRestriction>> result = RestrictionScanner.scan(model,
+        List.of(person));
+
+    // only the direct restrictions of the class, the superclass is not followed
+    List<PropertyRestriction> restrictions = result.get(person);
+    assertThat(restrictions).extracting(r -> r.property().getURI()).containsExactlyInAnyOrder(
+        "http://example.org/name", "http://example.org/knows", "http://example.org/address");
+    PropertyRestriction name = find(restrictions, "name");
+    assertThat(name.label()).isEqualTo("name");
+    assertThat(name.comment()).isEqualTo("The name");
+    assertThat(name.min()).isEqualTo(1);
+    assertThat(name.max()).isEqualTo(1);
+    assertThat(name.range()).isEmpty();
+    PropertyRestriction knows = find(restrictions, "knows");
+    assertThat(knows.comment()).isEqualTo("People they know");
+    assertThat(knows.min()).isNull();
+    assertThat(knows.max()).isEqualTo(5);
+    assertThat(knows.range()).containsExactly("http://example.org/Person");
+    PropertyRestriction address = find(restrictions, "address");
+    assertThat(address.min()).isZero();
+    assertThat(address.range()).containsExactly("http://example.org/Address");
+    assertThat(address.property().getModel()).isSameAs(model);
+  }
+
+  @Test
+  void testRejectsAnonymousSomeValuesFrom() {
+    Model model = read("""
+        ex:Person a owl:Class ; rdfs:subClassOf [ a owl:Restriction ; owl:onProperty ex:knows ;
+          owl:someValuesFrom [ owl:unionOf ( ex:Person ex:Agent ) ] ] .
+        """);
+
+    assertThatThrownBy(() -> RestrictionScanner.scan(model,
+        List.of(model.getResource("http://example.org/Person"))))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Invalid range for property: http://example.org/knows");
+  }
+
+  private static PropertyRestriction find(List<PropertyRestriction> restrictions, String name) {
+    return restrictions.stream()
+        .filter(r -> r.property().getLocalName().equals(name))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private static Model read(String ttl) {
+    Model model = ModelFactory.createDefaultModel();
+    model.read(new StringReader(PREFIXES + ttl), null, "TURTLE");
+    return model;
+  }
+}
@@ -0,0 +1,41 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.vocabulary.OWL2;
+import org.junit.jupiter.api.Test;
+
+public class TBoxExtractorTest {
+
+  @Test
+  void testExtractsSchemaWithoutIndividuals() {
+    Model model = ModelFactory.createDefaultModel();
+    model.read(new StringReader("""
+        @prefix ex: <http://example.org/> .
+        @prefix owl: <http://www.w3.org/2002/07/owl#> .
+        @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+        ex:Person a owl:Class ; rdfs:label "Person" ;
+          rdfs:subClassOf [ a owl:Restriction ; owl:onProperty ex:knows ; owl:maxCardinality 5 ] .
+        ex:Employee rdfs:subClassOf ex:Person .
+        ex:Role owl:unionOf ( ex:Person ex:Employee ) .
+        ex:knows a owl:ObjectProperty ; rdfs:domain ex:Person .
+        ex:alice a ex:Employee ; ex:knows ex:bob ; rdfs:label "Alice" .
+        ex:bob a ex:Person .
+        """), null, "TURTLE");
+
+    Model tbox = TBoxExtractor.extract(model);
+
+    assertThat(tbox.contains(tbox.createResource("http://example.org/Person"), null, "Person"))
+        .isTrue();
+    assertThat(tbox.contains(null, OWL2.maxCardinality, (RDFNode) null)).isTrue();
+    assertThat(tbox.contains(null, OWL2.unionOf, (RDFNode) null)).isTrue();
+    assertThat(tbox.listObjectsOfProperty(model.createProperty(
+        "http://www.w3.org/1999/02/22-rdf-syntax-ns#first")).toList()).hasSize(2);
+    assertThat(tbox.containsResource(tbox.createResource("http://example.org/alice"))).isFalse();
+    assertThat(tbox.contains(tbox.createResource("http://example.org/bob"), null)).isFalse();
+  }
+}
@@ -0,0 +1,121 @@
+package be.vlaanderen.omgeving.oddtoolkit.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class Tdb2ModelStoreTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void testKeepsModelsBetweenRuns() {
+    Model model = ModelFactory.createDefaultModel();
+    model.read(new StringReader("""
+        @prefix ex: <http://example.org/> .
+        @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+        ex:Person rdfs:subClassOf ex:Agent ; rdfs:label "Person" .
+        """), null, "TURTLE");
+
+    try (ModelStore store = new Tdb2ModelStore(dir)) {
+      assertThat(store.get("external:http://example.org/")).isNull();
+      Model stored = store.put("external:http://example.org/", model);
+      assertThat(stored.isIsomorphicWith(model)).isTrue();
+    }
+
+    try (ModelStore store = new Tdb2ModelStore(dir)) {
+      Model stored = store.get("external:http://example.org/");
+
+      assertThat(stored).isNotNull();
+      assertThat(stored.isIsomorphicWith(model)).isTrue();
+      assertThat(stored.getNsPrefixURI("ex")).isEqualTo("http://example.org/");
+      Resource person = stored.getResource("http://example.org/Person");
+      assertThat(person.getProperty(RDFS.label).getString()).isEqualTo("Person");
+      assertThat(store.get("external:http://example.org/other")).isNull();
+    }
+  }
+
+  @Test
+  void testLoadReplacesModelAndAllowsConcurrentReads() {
+    try (ModelStore store = new Tdb2ModelStore(dir)) {
+      store.load("ontology", graph -> graph.add(triple(0)));
+      Model stored = store.load("ontology", graph -> IntStream.range(1, 101)
+          .forEach(i -> graph.add(triple(i))));
+
+      assertThat(stored.size()).isEqualTo(100);
+      List<Integer> sizes = IntStream.range(0, 8).parallel()
+          .mapToObj(i -> stored.listStatements(null, RDFS.label, (RDFNode) null).toList().size())
+          .toList();
+      assertThat(sizes).containsOnly(100);
+
+      stored.add(stored.createResource("http://example.org/extra"), RDFS.label, "extra");
+      assertThat(store.get("ontology").size()).isEqualTo(101);
+    }
+  }
+
+  @Test
+  void testIteratorsStreamWithinTheirReadTransaction() {
+    try (ModelStore store = new Tdb2ModelStore(dir)) {
+      Model stored = store.load("ontology", graph -> IntStream.range(0, 100)
+          .forEach(i -> graph.add(triple(i))));
+
+      // nested queries share the read transaction of the outer iterator
+      var it = stored.listStatements();
+      int count = 0;
+      while (it.hasNext()) {
+        var statement = it.next();
+        assertThat(stored.contains(statement)).isTrue();
+        assertThat(stored.listStatements(statement.getSubject(), null, (RDFNode) null).toList())
+            .hasSize(1);
+        count++;
+      }
+      assertThat(count).isEqualTo(100);
+
+      // a closed iterator ends the read transaction, so the thread can write again
+      var partial = stored.listStatements();
+      partial.next();
+      partial.close();
+      stored.add(stored.createResource("http://example.org/extra"), RDFS.label, "extra");
+      assertThat(stored.size()).isEqualTo(101);
+    }
+  }
+
+  @Test
+  void testRecordsStoreTimeAndRemovesModels() {
+    try (ModelStore store = new Tdb2ModelStore(dir)) {
+      long before = System.currentTimeMillis();
+      store.load("inferred:a", graph -> graph.add(triple(0)));
+      store.load("inferred:b", graph -> graph.add(triple(1)));
+      store.load("external:http://example.org/", graph -> graph.add(triple(2)));
+
+      assertThat(store.storedAt("inferred:a")).isBetween(before, System.currentTimeMillis());
+      assertThat(store.storedAt("other")).isEqualTo(-1);
+      assertThat(store.names("inferred:")).containsExactlyInAnyOrder("inferred:a", "inferred:b");
+
+      store.remove("inferred:a");
+
+      assertThat(store.get("inferred:a")).isNull();
+      assertThat(store.storedAt("inferred:a")).isEqualTo(-1);
+      assertThat(store.names("inferred:")).containsExactly("inferred:b");
+      assertThat(store.names("")).hasSize(2);
+    }
+  }
+
+  private static Triple triple(int i) {
+    return Triple.create(NodeFactory.createURI("http://example.org/r" + i), RDFS.label.asNode(),
+        NodeFactory.createLiteral("r" + i));
+  }
+}